@@ -0,0 +1,49 @@
+package com.sheshape.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * Weak ETags for catalog, program, plan and blog reads.
+ *
+ * Lists and pages have no single version to compare, so their ETag is a hash of the serialized
+ * body: an unchanged page is still rendered, but answered with an empty 304. Single resources
+ * get strong, version-based ETags from their controllers, which this filter leaves untouched.
+ */
+@Configuration
+public class ConditionalRequestConfig {
+
+    // "private": some of these paths return per-user data (my-programs, my-plans)
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                // Spring Security would otherwise send no-store, which stops clients keeping a copy to revalidate
+                if ("GET".equals(request.getMethod())) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+                }
+                super.doFilterInternal(request, response, filterChain);
+            }
+        };
+        filter.setWriteWeakETag(true);
+
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/products/*", "/api/product-categories/*", "/api/gym/*",
+                "/api/nutrition/*", "/api/blog/*");
+        return registration;
+    }
+}
@@ -1,6 +1,7 @@
 package com.sheshape.config;
 
 import com.sheshape.model.Authority;
+import com.sheshape.model.Product;
 import com.sheshape.model.profile.Profile;
 import com.sheshape.model.User;
 import com.sheshape.repository.AuthorityRepository;
@@ -8,6 +9,7 @@ import com.sheshape.repository.profile.ProfileRepository;
 import com.sheshape.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -21,16 +23,19 @@ public class DatabaseInitializer implements CommandLineRunner {
     private final ProfileRepository profileRepository;
     private final AuthorityRepository authorityRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
 
     public DatabaseInitializer(
             UserRepository userRepository,
             ProfileRepository profileRepository,
             AuthorityRepository authorityRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            JdbcTemplate jdbcTemplate) {
         this.userRepository = userRepository;
         this.profileRepository = profileRepository;
         this.authorityRepository = authorityRepository;
         this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -41,6 +46,9 @@ public class DatabaseInitializer implements CommandLineRunner {
         
         // Initialize default users if they don't exist
         initializeDefaultUsers();
+
+        // Keep the pooled product id generator ahead of ids assigned before it existed
+        alignProductIdGenerator();
     }
 
     private void initializeAuthorities() {
@@ -68,6 +76,23 @@ public class DatabaseInitializer implements CommandLineRunner {
         }
     }
 
+    private void alignProductIdGenerator() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // Two blocks of headroom covers either end of the pooled optimizer's range
+        long floor = maxId + 2L * Product.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update(
+                "UPDATE id_generators SET next_val = ? WHERE generator = 'products' AND next_val < ?", floor, floor);
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM id_generators WHERE generator = 'products'", Integer.class);
+        if (updated == 0 && rows != null && rows == 0) {
+            jdbcTemplate.update("INSERT INTO id_generators (generator, next_val) VALUES ('products', ?)", floor);
+        }
+    }
+
     private Authority createAuthorityIfNotFound(String name) {
         return authorityRepository.findByName(name)
                 .orElseGet(() -> {
@@ -1,9 +1,8 @@
 package com.sheshape.config;
 
-import com.sheshape.security.JwtAuthenticationFilter;
 import com.sheshape.security.JwtAuthorizationFilter;
-import com.sheshape.security.JwtUtil;
 import com.sheshape.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,27 +32,23 @@ public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthorizationFilter jwtAuthorizationFilter;
-    private final JwtUtil jwtUtil;
 
     public SecurityConfig(UserDetailsServiceImpl userDetailsService,
-                          JwtAuthorizationFilter jwtAuthorizationFilter,
-                          JwtUtil jwtUtil) {
+                          JwtAuthorizationFilter jwtAuthorizationFilter) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthorizationFilter = jwtAuthorizationFilter;
-        this.jwtUtil = jwtUtil;
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationManager authenticationManager) throws Exception {
-        // Configure JWT filter
-        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager, jwtUtil);
-        jwtAuthenticationFilter.setFilterProcessesUrl("/api/auth/login");
-
+    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (SSE streams) were already authorized on the initial request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints - No authentication required
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
                         .requestMatchers("/api/blog/posts").permitAll()
@@ -66,6 +61,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/nutritionists").permitAll()
                         .requestMatchers("/api/nutritionists/{id}").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers("/api/cart/guest/**").permitAll()
 
                         .requestMatchers("/api/product-categories/**").permitAll()
                         .requestMatchers("/api/gym/programs").permitAll()
@@ -94,7 +90,6 @@ public class SecurityConfig {
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
-                .addFilter(jwtAuthenticationFilter)
                 .addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -119,7 +114,7 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:3000"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Guest-Cart"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -1,5 +1,6 @@
 package com.sheshape.controller;
 
+import com.sheshape.controller.support.ConditionalRequests;
 import com.sheshape.dto.BlogPostDto;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.service.BlogService;
@@ -13,13 +14,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/blog")
 public class BlogController {
 
+    private static final String ETAG_TYPE = "blog-post";
+
     private final BlogService blogService;
 
     public BlogController(BlogService blogService) {
@@ -130,10 +135,20 @@ public class BlogController {
         return ResponseEntity.noContent().build();
     }
     @GetMapping("/posts/{id}")
-    public ResponseEntity<BlogPostDto> getPostById(@PathVariable Long id) {
+    public ResponseEntity<BlogPostDto> getPostById(@PathVariable Long id, WebRequest request) {
         try {
+            LocalDateTime version = blogService.getPublishedPostVersion(id).orElse(null);
+            ResponseEntity<BlogPostDto> notModified = ConditionalRequests.notModified(request, ETAG_TYPE, id, version);
+            if (notModified != null) {
+                return notModified;
+            }
+            
             BlogPostDto post = blogService.getPostById(id);
-            return ResponseEntity.ok(post);
+            if (!Boolean.TRUE.equals(post.getIsPublished())) {
+                // Drafts are only visible to their author and admins; don't hand out shared validators
+                return ResponseEntity.ok(post);
+            }
+            return ConditionalRequests.ok(post, ETAG_TYPE, id, post.getUpdatedAt());
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (AccessDeniedException e) {
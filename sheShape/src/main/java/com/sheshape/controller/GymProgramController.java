@@ -1,5 +1,6 @@
 package com.sheshape.controller;
 
+import com.sheshape.controller.support.ConditionalRequests;
 import com.sheshape.dto.GymProgramDto;
 import com.sheshape.dto.GymSessionDto;
 import com.sheshape.dto.UserGymProgramDto;
@@ -10,13 +11,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/gym")
 public class GymProgramController {
 
+    private static final String ETAG_TYPE = "gym-program";
+
     private final GymProgramService gymProgramService;
     private final UserService userService;
 
@@ -37,8 +42,15 @@ public class GymProgramController {
     }
     
     @GetMapping("/programs/{id}")
-    public ResponseEntity<GymProgramDto> getProgramById(@PathVariable Long id) {
-        return ResponseEntity.ok(gymProgramService.getGymProgramById(id));
+    public ResponseEntity<GymProgramDto> getProgramById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime version = gymProgramService.getGymProgramVersion(id).orElse(null);
+        ResponseEntity<GymProgramDto> notModified = ConditionalRequests.notModified(request, ETAG_TYPE, id, version);
+        if (notModified != null) {
+            return notModified;
+        }
+        
+        GymProgramDto program = gymProgramService.getGymProgramById(id);
+        return ConditionalRequests.ok(program, ETAG_TYPE, id, program.getUpdatedAt());
     }
     
     @GetMapping("/trainer/{trainerId}/programs")
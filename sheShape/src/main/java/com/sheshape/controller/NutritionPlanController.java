@@ -1,5 +1,6 @@
 package com.sheshape.controller;
 
+import com.sheshape.controller.support.ConditionalRequests;
 import com.sheshape.dto.NutritionPlanDto;
 import com.sheshape.dto.UserNutritionPlanDto;
 import com.sheshape.service.NutritionPlanService;
@@ -9,13 +10,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/nutrition")
 public class NutritionPlanController {
 
+    private static final String ETAG_TYPE = "nutrition-plan";
+
     private final NutritionPlanService nutritionPlanService;
     private final UserService userService;
 
@@ -36,8 +41,15 @@ public class NutritionPlanController {
     }
     
     @GetMapping("/plans/{id}")
-    public ResponseEntity<NutritionPlanDto> getPlanById(@PathVariable Long id) {
-        return ResponseEntity.ok(nutritionPlanService.getNutritionPlanById(id));
+    public ResponseEntity<NutritionPlanDto> getPlanById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime version = nutritionPlanService.getNutritionPlanVersion(id).orElse(null);
+        ResponseEntity<NutritionPlanDto> notModified = ConditionalRequests.notModified(request, ETAG_TYPE, id, version);
+        if (notModified != null) {
+            return notModified;
+        }
+        
+        NutritionPlanDto plan = nutritionPlanService.getNutritionPlanById(id);
+        return ConditionalRequests.ok(plan, ETAG_TYPE, id, plan.getUpdatedAt());
     }
     
     @GetMapping("/nutritionist/{nutritionistId}/plans")
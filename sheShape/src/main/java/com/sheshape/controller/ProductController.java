@@ -1,42 +1,108 @@
 package com.sheshape.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sheshape.controller.support.ConditionalRequests;
+import com.sheshape.controller.support.SnapshotResponses;
+import com.sheshape.dto.KeysetPageDto;
 import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.ProductFilterResultDto;
+import com.sheshape.dto.ProductImportResultDto;
+import com.sheshape.dto.ProductSuggestionDto;
+import com.sheshape.exception.BadRequestException;
+import com.sheshape.service.ProductCategoryService;
+import com.sheshape.service.ProductImportService;
 import com.sheshape.service.ProductService;
+import com.sheshape.service.cache.ListingSnapshotService;
+import com.sheshape.service.recommendation.RecentlyViewedService;
+import com.sheshape.service.recommendation.RelatedProductService;
+import com.sheshape.service.recommendation.TrendingProductService;
+import com.sheshape.service.search.ProductSearchService;
+import com.sheshape.service.search.ProductSuggestService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_CARD = "card";
+    private static final String ETAG_TYPE = "product";
+    private static final int MAX_IN_STOCK_PAGE_SIZE = 200;
+    private static final int IN_STOCK_STREAM_BATCH_SIZE = 500;
+    private static final int MAX_RELATED_LIMIT = 50;
+    // Sorts the storefront uses; other sorts are rendered per request so they can't crowd out snapshots
+    private static final Set<String> SNAPSHOT_SORT_PROPERTIES = Set.of("name", "price", "createdAt");
+    private static final int MAX_TRENDING_LIMIT = 50;
+    private static final int MAX_RECENTLY_VIEWED_LIMIT = 50;
+
     private final ProductService productService;
+    private final ProductCategoryService productCategoryService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductImportService productImportService;
+    private final ListingSnapshotService listingSnapshotService;
+    private final RelatedProductService relatedProductService;
+    private final TrendingProductService trendingProductService;
+    private final RecentlyViewedService recentlyViewedService;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCategoryService productCategoryService,
+                             ProductSuggestService productSuggestService,
+                             ProductImportService productImportService,
+                             ListingSnapshotService listingSnapshotService,
+                             RelatedProductService relatedProductService,
+                             TrendingProductService trendingProductService,
+                             RecentlyViewedService recentlyViewedService,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productCategoryService = productCategoryService;
+        this.productSuggestService = productSuggestService;
+        this.productImportService = productImportService;
+        this.listingSnapshotService = listingSnapshotService;
+        this.relatedProductService = relatedProductService;
+        this.trendingProductService = trendingProductService;
+        this.recentlyViewedService = recentlyViewedService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<Page<ProductDto>> getAllActiveProducts(
+    public ResponseEntity<?> getAllActiveProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            ServletWebRequest request) {
         
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc") ? 
                 Sort.Direction.ASC : Sort.Direction.DESC;
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        return ResponseEntity.ok(productService.getAllActiveProducts(pageable));
+        Supplier<?> listing = VIEW_CARD.equalsIgnoreCase(view)
+                ? () -> productService.getActiveProductCards(pageable)
+                : () -> productService.getAllActiveProducts(pageable);
+        return listing("products", pageable, view, listing, request);
     }
     
     @GetMapping("/all")
@@ -55,32 +121,129 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts(pageable));
     }
     
+    /**
+     * "Trending now": products with the most views and add-to-carts recently
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductDto>> getTrendingProducts(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        return ResponseEntity.ok(trendingProductService.getTrendingProducts(Math.min(limit, MAX_TRENDING_LIMIT)));
+    }
+    
+    /**
+     * The signed-in user's recently viewed products, newest first; empty for anonymous visitors
+     */
+    @GetMapping("/recently-viewed")
+    public ResponseEntity<List<ProductDto>> getRecentlyViewedProducts(
+            @RequestParam(defaultValue = "20") int limit,
+            Principal principal) {
+        if (limit < 1 || limit > MAX_RECENTLY_VIEWED_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_RECENTLY_VIEWED_LIMIT);
+        }
+        if (principal == null) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(recentlyViewedService.getRecentlyViewed(principal.getName(), limit));
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest request, Principal principal) {
+        // Served from the product cache, so the version check costs no query on a hit
+        ProductDto product = productService.getProductById(id);
+        trendingProductService.recordView(id);
+        if (principal != null) {
+            recentlyViewedService.recordView(principal.getName(), id);
+        }
+        ResponseEntity<ProductDto> notModified =
+                ConditionalRequests.notModified(request, ETAG_TYPE, id, product.getUpdatedAt());
+        if (notModified != null) {
+            return notModified;
+        }
+        return ConditionalRequests.ok(product, ETAG_TYPE, id, product.getUpdatedAt());
+    }
+    
+    /**
+     * "Frequently bought together": products most often ordered with this one
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductDto>> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > MAX_RELATED_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_RELATED_LIMIT);
+        }
+        return ResponseEntity.ok(relatedProductService.getRelatedProducts(id, limit));
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<ProductDto>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String direction) {
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            ServletWebRequest request) {
         
         Sort.Direction sortDirection = direction.equalsIgnoreCase("asc") ? 
                 Sort.Direction.ASC : Sort.Direction.DESC;
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        return ResponseEntity.ok(productService.getProductsByCategory(category, pageable));
+        Supplier<?> listing = VIEW_CARD.equalsIgnoreCase(view)
+                ? () -> productService.getProductCardsByCategory(category, pageable)
+                : () -> productService.getProductsByCategory(category, pageable);
+        // Only categories that exist get snapshots, so made-up names can't fill the table
+        if (!productCategoryService.hasCategory(category)) {
+            return ResponseEntity.ok(listing.get());
+        }
+        return listing("category:" + category, pageable, view, listing, request);
     }
     
+    /**
+     * First pages are identical for every visitor, so they are served from pre-serialized snapshots
+     */
+    private ResponseEntity<?> listing(String endpoint, Pageable pageable, String view, Supplier<?> listing,
+                                      ServletWebRequest request) {
+        if (!listingSnapshotService.covers(pageable.getPageNumber(), pageable.getPageSize())
+                || !pageable.getSort().stream().allMatch(order -> SNAPSHOT_SORT_PROPERTIES.contains(order.getProperty()))) {
+            return ResponseEntity.ok(listing.get());
+        }
+        String key = endpoint + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|"
+                + pageable.getSort() + "|" + (VIEW_CARD.equalsIgnoreCase(view) ? VIEW_CARD : VIEW_FULL);
+        return SnapshotResponses.of(request, listingSnapshotService.get(key, listing));
+    }
+    
+    // Results are ranked by relevance unless sortBy is "name" or "price"
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<?> searchProducts(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = ProductSearchService.SORT_RELEVANCE) String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
+        
+        Sort.Direction sortDirection = direction.equalsIgnoreCase("asc") ? 
+                Sort.Direction.ASC : Sort.Direction.DESC;
+        
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
+        
+        if (VIEW_CARD.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(productService.searchProductCards(keyword, pageable));
+        }
+        return ResponseEntity.ok(productService.searchProducts(keyword, pageable));
+    }
+    
+    @GetMapping("/filter")
+    public ResponseEntity<ProductFilterResultDto> filterProducts(
+            @RequestParam(required = false) Set<String> category,
+            @RequestParam(required = false) Set<String> price,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String direction) {
         
@@ -89,12 +252,60 @@ public class ProductController {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        return ResponseEntity.ok(productService.searchProducts(keyword, pageable));
+        return ResponseEntity.ok(productService.filterProducts(category, price, inStock, pageable));
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDto>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > ProductSuggestService.MAX_RESULTS) {
+            throw new BadRequestException("limit must be between 1 and " + ProductSuggestService.MAX_RESULTS);
+        }
+        return ResponseEntity.ok(productSuggestService.suggest(q, limit));
+    }
+
+    /**
+     * Keyset-paged in-stock products; pass nextCursor back as "after" for the next page
+     */
     @GetMapping("/in-stock")
-    public ResponseEntity<List<ProductDto>> getProductsInStock() {
-        return ResponseEntity.ok(productService.getProductsInStock());
+    public ResponseEntity<?> getProductsInStock(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            ServletWebRequest request) {
+        if (size < 1 || size > MAX_IN_STOCK_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_IN_STOCK_PAGE_SIZE);
+        }
+        if (after == null && listingSnapshotService.covers(0, size)) {
+            return SnapshotResponses.of(request, listingSnapshotService.get("in-stock|" + size,
+                    () -> productService.getProductsInStock(null, size)));
+        }
+        return ResponseEntity.ok(productService.getProductsInStock(after, size));
+    }
+
+    /**
+     * Every in-stock product as newline-delimited JSON, read page by page so no transaction or
+     * connection is held while the client consumes the stream
+     */
+    @GetMapping(value = "/in-stock", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProductsInStock(HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        StreamingResponseBody body = output -> {
+            String cursor = null;
+            do {
+                KeysetPageDto<ProductDto> page = productService.getProductsInStock(cursor, IN_STOCK_STREAM_BATCH_SIZE);
+                for (ProductDto product : page.getContent()) {
+                    output.write(objectMapper.writeValueAsBytes(product));
+                    output.write('\n');
+                }
+                output.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     @PostMapping
@@ -104,6 +315,31 @@ public class ProductController {
                 .body(productService.createProduct(productDto));
     }
     
+    /**
+     * Bulk upsert by SKU from a streamed CSV (text/csv, header row required) or NDJSON
+     * (application/x-ndjson) body; ?format=csv|ndjson overrides the content type
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDto> importProducts(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format) throws IOException {
+        ProductImportService.Format importFormat = importFormat(format, request.getContentType());
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), importFormat));
+    }
+
+    private static ProductImportService.Format importFormat(String format, String contentType) {
+        String requested = (format != null ? format : contentType == null ? "" : contentType).toLowerCase(Locale.ROOT);
+        if (requested.equals("csv") || requested.startsWith("text/csv")) {
+            return ProductImportService.Format.CSV;
+        }
+        if (requested.equals("ndjson") || requested.equals("jsonl")
+                || requested.startsWith("application/x-ndjson") || requested.startsWith("application/jsonl")) {
+            return ProductImportService.Format.NDJSON;
+        }
+        throw new BadRequestException("Unsupported import format; send text/csv or application/x-ndjson");
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductDto> updateProduct(
@@ -0,0 +1,70 @@
+package com.sheshape.controller;
+
+import com.sheshape.dto.KeysetPageDto;
+import com.sheshape.dto.ProductReviewDto;
+import com.sheshape.dto.UserDto;
+import com.sheshape.exception.BadRequestException;
+import com.sheshape.service.ProductReviewService;
+import com.sheshape.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{productId}/reviews")
+public class ProductReviewController {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final ProductReviewService productReviewService;
+    private final UserService userService;
+
+    public ProductReviewController(ProductReviewService productReviewService, UserService userService) {
+        this.productReviewService = productReviewService;
+        this.userService = userService;
+    }
+
+    /**
+     * Reviews of a product, newest first; pass nextCursor back as "after" for the next page
+     */
+    @GetMapping
+    public ResponseEntity<KeysetPageDto<ProductReviewDto>> getReviews(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(productReviewService.getReviews(productId, after, size));
+    }
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ProductReviewDto> createReview(
+            @PathVariable Long productId,
+            @Valid @RequestBody ProductReviewDto reviewDto) {
+        Long userId = userService.getCurrentUser().getId();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(productReviewService.createReview(productId, userId, reviewDto));
+    }
+
+    @PutMapping("/{reviewId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ProductReviewDto> updateReview(
+            @PathVariable Long productId,
+            @PathVariable Long reviewId,
+            @Valid @RequestBody ProductReviewDto reviewDto) {
+        Long userId = userService.getCurrentUser().getId();
+        return ResponseEntity.ok(productReviewService.updateReview(productId, reviewId, userId, reviewDto));
+    }
+
+    @DeleteMapping("/{reviewId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> deleteReview(@PathVariable Long productId, @PathVariable Long reviewId) {
+        UserDto user = userService.getCurrentUser();
+        productReviewService.deleteReview(productId, reviewId, user.getId(), "ADMIN".equals(user.getRole()));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.sheshape.controller;
+
+import com.sheshape.dto.SyncResponseDto;
+import com.sheshape.service.SyncService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Everything the app caches that changed since the given token; omit it on first launch.
+     * Requires a login, since nutrition plans and FAQs are not public.
+     */
+    @GetMapping
+    public ResponseEntity<SyncResponseDto> sync(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok(syncService.getChangesSince(since));
+    }
+}
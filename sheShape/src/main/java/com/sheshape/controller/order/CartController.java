@@ -1,7 +1,9 @@
 package com.sheshape.controller.order;
 
 import com.sheshape.dto.order.AddToCartRequestDto;
+import com.sheshape.dto.order.CartBatchRequestDto;
 import com.sheshape.dto.order.CartDto;
+import com.sheshape.dto.order.CartValidationDto;
 import com.sheshape.service.UserService;
 import com.sheshape.service.order.CartService;
 import jakarta.validation.Valid;
@@ -17,6 +19,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class CartController {
 
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_DELTA = "delta";
+
     private final CartService cartService;
     private final UserService userService;
 
@@ -31,11 +36,16 @@ public class CartController {
     }
 
     /**
-     * Add item to cart (requires authentication)
+     * Add item to cart (requires authentication).
+     * With view=delta only the changed line and the new totals are returned.
      */
     @PostMapping("/add")
-    public ResponseEntity<CartDto> addToCart(@Valid @RequestBody AddToCartRequestDto request) {
+    public ResponseEntity<?> addToCart(@Valid @RequestBody AddToCartRequestDto request,
+                                       @RequestParam(defaultValue = VIEW_FULL) String view) {
         Long userId = userService.getCurrentUser().getId();
+        if (VIEW_DELTA.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(cartService.addToCartDelta(userId, request));
+        }
         CartDto cart = cartService.addToCart(userId, request);
         return ResponseEntity.ok(cart);
     }
@@ -44,10 +54,14 @@ public class CartController {
      * Update item quantity in cart
      */
     @PutMapping("/items/{productId}")
-    public ResponseEntity<CartDto> updateCartItemQuantity(
+    public ResponseEntity<?> updateCartItemQuantity(
             @PathVariable Long productId,
-            @RequestParam Integer quantity) {
+            @RequestParam Integer quantity,
+            @RequestParam(defaultValue = VIEW_FULL) String view) {
         Long userId = userService.getCurrentUser().getId();
+        if (VIEW_DELTA.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(cartService.updateCartItemQuantityDelta(userId, productId, quantity));
+        }
         CartDto cart = cartService.updateCartItemQuantity(userId, productId, quantity);
         return ResponseEntity.ok(cart);
     }
@@ -56,12 +70,37 @@ public class CartController {
      * Remove item from cart
      */
     @DeleteMapping("/items/{productId}")
-    public ResponseEntity<CartDto> removeFromCart(@PathVariable Long productId) {
+    public ResponseEntity<?> removeFromCart(@PathVariable Long productId,
+                                            @RequestParam(defaultValue = VIEW_FULL) String view) {
         Long userId = userService.getCurrentUser().getId();
+        if (VIEW_DELTA.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(cartService.removeFromCartDelta(userId, productId));
+        }
         CartDto cart = cartService.removeFromCart(userId, productId);
         return ResponseEntity.ok(cart);
     }
 
+    /**
+     * Apply several add/set/remove operations in one request
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<CartDto> applyBatch(@Valid @RequestBody CartBatchRequestDto request) {
+        Long userId = userService.getCurrentUser().getId();
+        CartDto cart = cartService.applyBatch(userId, request);
+        return ResponseEntity.ok(cart);
+    }
+
+    /**
+     * Merge a guest cart (X-Guest-Cart header) into the current user's cart
+     */
+    @PostMapping("/merge")
+    public ResponseEntity<CartDto> mergeGuestCart(
+            @RequestHeader(GuestCartController.GUEST_CART_HEADER) String guestCartToken) {
+        Long userId = userService.getCurrentUser().getId();
+        CartDto cart = cartService.mergeGuestCart(userId, guestCartToken);
+        return ResponseEntity.ok(cart);
+    }
+
     /**
      * Clear entire cart
      */
@@ -83,13 +122,13 @@ public class CartController {
     }
 
     /**
-     * Validate cart
+     * Validate cart: "valid" plus the offending lines and why they fail
      */
     @GetMapping("/validate")
-    public ResponseEntity<Map<String, Boolean>> validateCart() {
+    public ResponseEntity<CartValidationDto> validateCart() {
         Long userId = userService.getCurrentUser().getId();
-        boolean isValid = cartService.validateCart(userId);
-        return ResponseEntity.ok(Map.of("valid", isValid));
+        CartValidationDto validation = cartService.getCartValidation(userId);
+        return ResponseEntity.ok(validation);
     }
 
     // Admin endpoints
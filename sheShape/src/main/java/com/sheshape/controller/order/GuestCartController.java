@@ -0,0 +1,63 @@
+package com.sheshape.controller.order;
+
+import com.sheshape.dto.order.AddToCartRequestDto;
+import com.sheshape.dto.order.GuestCartDto;
+import com.sheshape.service.order.GuestCartService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Cart endpoints for anonymous visitors. The cart travels in the X-Guest-Cart header and every
+ * response carries the re-signed token to send next time.
+ */
+@RestController
+@RequestMapping("/api/cart/guest")
+@RequiredArgsConstructor
+public class GuestCartController {
+
+    public static final String GUEST_CART_HEADER = "X-Guest-Cart";
+
+    private final GuestCartService guestCartService;
+
+    /**
+     * Get guest cart
+     */
+    @GetMapping
+    public ResponseEntity<GuestCartDto> getCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token) {
+        return ResponseEntity.ok(guestCartService.getCart(token));
+    }
+
+    /**
+     * Add item to guest cart
+     */
+    @PostMapping("/add")
+    public ResponseEntity<GuestCartDto> addToCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token,
+            @Valid @RequestBody AddToCartRequestDto request) {
+        return ResponseEntity.ok(guestCartService.addToCart(token, request));
+    }
+
+    /**
+     * Update item quantity in guest cart
+     */
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<GuestCartDto> updateCartItemQuantity(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token,
+            @PathVariable Long productId,
+            @RequestParam Integer quantity) {
+        return ResponseEntity.ok(guestCartService.updateCartItemQuantity(token, productId, quantity));
+    }
+
+    /**
+     * Remove item from guest cart
+     */
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<GuestCartDto> removeFromCart(
+            @RequestHeader(value = GUEST_CART_HEADER, required = false) String token,
+            @PathVariable Long productId) {
+        return ResponseEntity.ok(guestCartService.removeFromCart(token, productId));
+    }
+}
@@ -5,16 +5,20 @@ import com.sheshape.dto.order.OrderDto;
 import com.sheshape.model.order.Order;
 import com.sheshape.service.UserService;
 import com.sheshape.service.order.OrderService;
+import com.sheshape.service.order.OrderStatusStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -24,7 +28,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OrderController {
 
+    // Checkout runs in one transaction per attempt, so a lock timeout or deadlock victim can start over
+    private static final int CHECKOUT_ATTEMPTS = 3;
+
     private final OrderService orderService;
+    private final OrderStatusStreamService orderStatusStreamService;
     private final UserService userService;
 
     /**
@@ -33,8 +41,16 @@ public class OrderController {
     @PostMapping("/checkout")
     public ResponseEntity<OrderDto> checkout(@Valid @RequestBody CheckoutRequestDto checkoutRequest) {
         Long userId = userService.getCurrentUser().getId();
-        OrderDto order = orderService.checkout(userId, checkoutRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                OrderDto order = orderService.checkout(userId, checkoutRequest);
+                return ResponseEntity.status(HttpStatus.CREATED).body(order);
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == CHECKOUT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     /**
@@ -77,6 +93,15 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * Stream order status changes as Server-Sent Events (replaces polling the order)
+     */
+    @GetMapping(value = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or @orderSecurity.isOrderOwner(#orderId, authentication.name)")
+    public SseEmitter streamOrderStatus(@PathVariable Long orderId) {
+        return orderStatusStreamService.subscribe(orderService.getOrderStatus(orderId));
+    }
+
     /**
      * Get order by order number
      */
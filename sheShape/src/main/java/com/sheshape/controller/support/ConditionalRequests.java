@@ -0,0 +1,55 @@
+package com.sheshape.controller.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Strong validators for single resources, derived from the entity id and its updatedAt version.
+ *
+ * Controllers look the version up first (from a cache or a one-column query) and answer
+ * 304 Not Modified before building any DTO when the client's copy is current. The Cache-Control
+ * header for these paths is set by {@link com.sheshape.config.ConditionalRequestConfig}.
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    public static String eTag(String type, Long id, LocalDateTime version) {
+        return "\"" + type + "-" + id + "-" + toEpochMillis(version) + "\"";
+    }
+
+    /**
+     * Evaluate If-None-Match / If-Modified-Since against the given version. Writes the validators
+     * to the response either way.
+     * @return a 304 response when the client's copy is current, null when the body must be sent
+     */
+    public static <T> ResponseEntity<T> notModified(WebRequest request, String type, Long id,
+                                                    LocalDateTime version) {
+        if (version == null || !request.checkNotModified(eTag(type, id, version), toEpochMillis(version))) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    /**
+     * 200 response carrying the validators for the given version
+     */
+    public static <T> ResponseEntity<T> ok(T body, String type, Long id, LocalDateTime version) {
+        if (version == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag(type, id, version))
+                .lastModified(toEpochMillis(version))
+                .body(body);
+    }
+
+    private static long toEpochMillis(LocalDateTime version) {
+        return version.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
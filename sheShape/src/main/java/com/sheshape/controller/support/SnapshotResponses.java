@@ -0,0 +1,50 @@
+package com.sheshape.controller.support;
+
+import com.sheshape.service.cache.ListingSnapshotService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Writes a pre-rendered listing snapshot as-is: the gzip bytes when the client accepts them,
+ * otherwise the JSON bytes, with a strong ETag computed once at render time.
+ */
+public final class SnapshotResponses {
+
+    private static final String GZIP = "gzip";
+
+    private SnapshotResponses() {
+    }
+
+    public static ResponseEntity<byte[]> of(ServletWebRequest request, ListingSnapshotService.Snapshot snapshot) {
+        HttpServletRequest servletRequest = request.getRequest();
+        // The bytes already carry an ETag; don't let the shallow ETag filter buffer and hash them again
+        ShallowEtagHeaderFilter.disableContentCaching(servletRequest);
+
+        boolean gzip = acceptsGzip(servletRequest);
+        // Each encoding is a different representation, so it gets its own strong validator
+        String eTag = gzip ? snapshot.getETag().replaceFirst("\"$", "-gz\"") : snapshot.getETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        byte[] body = gzip ? snapshot.getGzip() : snapshot.getJson();
+        return response.contentLength(body.length).body(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+    }
+}
@@ -21,6 +21,9 @@ public class AuthDTO {
         
         @NotBlank(message = "Password is required")
         private String password;
+
+        // Optional signed guest cart to merge into the user's cart on login
+        private String guestCartToken;
     }
     
     // Registration request DTO
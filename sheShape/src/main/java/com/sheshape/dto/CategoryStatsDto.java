@@ -0,0 +1,30 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregates of the active products in one category
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryStatsDto {
+
+    private String category;
+    private long productCount;
+    private long inStockCount;
+    private long totalStock;
+    private double averagePrice;
+
+    // Used by the GROUP BY constructor expression; SUM/AVG come back as wrappers
+    public CategoryStatsDto(String category, Long productCount, Long inStockCount, Long totalStock,
+                            Double averagePrice) {
+        this.category = category;
+        this.productCount = productCount != null ? productCount : 0;
+        this.inStockCount = inStockCount != null ? inStockCount : 0;
+        this.totalStock = totalStock != null ? totalStock : 0;
+        this.averagePrice = averagePrice != null ? averagePrice : 0;
+    }
+}
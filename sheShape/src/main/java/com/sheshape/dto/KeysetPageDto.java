@@ -0,0 +1,22 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset-paged listing. Pass nextCursor back as the "after" parameter to read the
+ * following page; it is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPageDto<T> {
+
+    private List<T> content = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Many products changed at once (bulk import), published in-process after the writes committed.
+ * Catalog indexes rebuild once instead of applying one change event per product.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBulkChangeEventDto {
+
+    private long created;
+    private long updated;
+}
@@ -0,0 +1,51 @@
+package com.sheshape.dto;
+
+import com.sheshape.model.Product;
+import com.sheshape.model.ProductImage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Slim product representation for listing pages: no description, categories or image gallery,
+ * just what a product tile shows
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCardDto {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private boolean inStock;
+    private String mainImageUrl;
+    private Double averageRating;
+    private int ratingCount;
+
+    public ProductCardDto(Product product) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.price = product.getPrice();
+        this.discountPrice = product.getDiscountPrice();
+        this.inStock = product.getInventoryCount() != null && product.getInventoryCount() > 0;
+        this.averageRating = product.getAverageRating();
+        this.ratingCount = product.getDisplayedRatingCount();
+
+        // Images are ordered by position; fall back to the first one when none is flagged as main
+        ProductImage mainImage = null;
+        for (ProductImage image : product.getImages()) {
+            if (image.isMain()) {
+                mainImage = image;
+                break;
+            }
+            if (mainImage == null) {
+                mainImage = image;
+            }
+        }
+        this.mainImageUrl = mainImage != null ? mainImage.getImageUrl() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sheshape.dto;
+
+import com.sheshape.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Snapshot of a product after a catalog write, published in-process so in-memory catalog
+ * indexes can update without reading the database
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeEventDto {
+
+    private Long productId;
+    private String name;
+    private String description;
+    private Set<String> categories = new HashSet<>();
+    // Categories the product had before this write, when they may differ from the current ones
+    private Set<String> previousCategories = new HashSet<>();
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private Integer inventoryCount;
+    private boolean active;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+
+    public ProductChangeEventDto(Product product) {
+        this.productId = product.getId();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        if (product.getCategories() != null) {
+            this.categories = new HashSet<>(product.getCategories());
+        }
+        this.price = product.getPrice();
+        this.discountPrice = product.getDiscountPrice();
+        this.inventoryCount = product.getInventoryCount();
+        this.active = Boolean.TRUE.equals(product.getIsActive());
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public static ProductChangeEventDto deleted(Product product) {
+        ProductChangeEventDto event = new ProductChangeEventDto();
+        event.setProductId(product.getId());
+        if (product.getCategories() != null) {
+            event.setPreviousCategories(new HashSet<>(product.getCategories()));
+        }
+        event.setDeleted(true);
+        event.setChangedAt(LocalDateTime.now());
+        return event;
+    }
+
+    // Whether the product should appear in storefront indexes at all
+    public boolean isListed() {
+        return active && !deleted;
+    }
+}
@@ -23,6 +23,8 @@ public class ProductDto {
     
     private Long id;
     
+    private String sku;
+    
     @NotBlank(message = "Product name is required")
     private String name;
     
@@ -44,6 +46,12 @@ public class ProductDto {
     private List<ProductImageDto> images = new ArrayList<>();
     
     private Boolean isActive;
+
+    // Read-only; maintained from reviews. The count is rounded to two significant figures from 100
+    // reviews, so it only changes when the product is re-versioned
+    private Double averageRating;
+
+    private Integer ratingCount;
     
     private LocalDateTime createdAt;
     
@@ -52,12 +60,15 @@ public class ProductDto {
     // Constructor from Product entity
     public ProductDto(Product product) {
         this.id = product.getId();
+        this.sku = product.getSku();
         this.name = product.getName();
         this.description = product.getDescription();
         this.price = product.getPrice();
         this.discountPrice = product.getDiscountPrice();
         this.inventoryCount = product.getInventoryCount();
         this.isActive = product.getIsActive();
+        this.averageRating = product.getAverageRating();
+        this.ratingCount = product.getDisplayedRatingCount();
         this.createdAt = product.getCreatedAt();
         this.updatedAt = product.getUpdatedAt();
 
@@ -0,0 +1,26 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One page of filtered products with the facet counts for refining the filter.
+ *
+ * Each facet group is counted with the filters of the other groups applied, so selecting a
+ * category still shows how many products the other categories would add.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilterResultDto {
+
+    private Page<ProductDto> products;
+    private Map<String, Long> categoryCounts = new LinkedHashMap<>();
+    private Map<String, Long> priceCounts = new LinkedHashMap<>();
+    private Map<String, Long> stockCounts = new LinkedHashMap<>();
+}
@@ -0,0 +1,17 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product's image gallery changed (image added, removed, reordered or a new main image),
+ * published in-process
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImageChangeEventDto {
+
+    private Long productId;
+}
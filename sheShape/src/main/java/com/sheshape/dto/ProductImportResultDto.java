@@ -0,0 +1,53 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import. Failed rows are skipped and listed; they never abort the import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductImportResultDto {
+
+    private long rows;
+    private long created;
+    private long updated;
+    private long failed;
+    // Capped; failed counts every rejected row
+    private List<RowError> errors = new ArrayList<>();
+    private long durationMs;
+
+    public void merge(ProductImportResultDto other, int maxErrors) {
+        rows += other.rows;
+        created += other.created;
+        updated += other.updated;
+        failed += other.failed;
+        for (RowError error : other.errors) {
+            if (errors.size() >= maxErrors) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    public void reject(long line, String sku, String message) {
+        rows++;
+        failed++;
+        errors.add(new RowError(line, sku, message));
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long line;
+        private String sku;
+        private String message;
+    }
+}
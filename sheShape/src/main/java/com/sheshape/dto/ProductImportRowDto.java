@@ -0,0 +1,34 @@
+package com.sheshape.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * One product line of a bulk import, keyed by the required SKU. Rows with a known SKU update that
+ * product; fields left empty keep their current value. Other rows create a product.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRowDto {
+
+    // Position in the uploaded file, for error reports
+    @JsonIgnore
+    private long line;
+
+    private String sku;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private Integer inventoryCount;
+    private Set<String> categories;
+    private Boolean active;
+}
@@ -0,0 +1,17 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock movement of one product (negative for sales, positive for restocks), published in-process
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductInventoryChangeEventDto {
+
+    private Long productId;
+    private int delta;
+}
@@ -0,0 +1,16 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A review changed a product's displayed rating or review count, published in-process
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRatingChangeEventDto {
+
+    private Long productId;
+}
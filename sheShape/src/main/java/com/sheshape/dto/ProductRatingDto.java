@@ -0,0 +1,23 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Review aggregates of one product as stored on the products row
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRatingDto {
+
+    private long ratingSum;
+    private int ratingCount;
+
+    // Used by the constructor expression in ProductRepository
+    public ProductRatingDto(Long ratingSum, Integer ratingCount) {
+        this.ratingSum = ratingSum != null ? ratingSum : 0;
+        this.ratingCount = ratingCount != null ? ratingCount : 0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sheshape.dto;
+
+import com.sheshape.model.ProductReview;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductReviewDto {
+
+    private Long id;
+
+    private Long productId;
+
+    private String authorName;
+
+    @NotNull(message = "Rating is required")
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+
+    @Size(max = 120, message = "Title cannot exceed 120 characters")
+    private String title;
+
+    @Size(max = 5000, message = "Comment cannot exceed 5000 characters")
+    private String comment;
+
+    private Boolean verifiedPurchase;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public ProductReviewDto(ProductReview review) {
+        this.id = review.getId();
+        this.productId = review.getProduct().getId();
+        this.authorName = review.getUser().getUsername();
+        this.rating = review.getRating();
+        this.title = review.getTitle();
+        this.comment = review.getComment();
+        this.verifiedPurchase = review.getVerifiedPurchase();
+        this.createdAt = review.getCreatedAt();
+        this.updatedAt = review.getUpdatedAt();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of a product sold across all orders
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSalesDto {
+
+    private Long productId;
+    private Long unitsSold;
+}
@@ -0,0 +1,23 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typeahead suggestion: a product name (with its id) or a category label
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestionDto {
+
+    public enum Type {
+        PRODUCT,
+        CATEGORY
+    }
+
+    private String text;
+    private Type type;
+    private Long productId;
+}
@@ -0,0 +1,21 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes of one entity type since a sync token: rows to upsert and ids to drop (deleted,
+ * deactivated or unpublished)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncChangesDto<T> {
+
+    private List<T> updated = new ArrayList<>();
+    private List<Long> removed = new ArrayList<>();
+}
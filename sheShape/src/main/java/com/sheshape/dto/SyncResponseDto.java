@@ -0,0 +1,23 @@
+package com.sheshape.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of /api/sync. Pass token back as "since" on the next launch. When full is true the
+ * client's cache was missing or too old, "updated" holds everything and the cache must be replaced.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncResponseDto {
+
+    private String token;
+    private boolean full;
+    private SyncChangesDto<ProductDto> products;
+    private SyncChangesDto<GymProgramDto> gymPrograms;
+    private SyncChangesDto<NutritionPlanDto> nutritionPlans;
+    private SyncChangesDto<BlogPostDto> blogPosts;
+    private SyncChangesDto<FAQDto> faqs;
+}
@@ -0,0 +1,48 @@
+package com.sheshape.dto.order;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several cart operations applied in order, all or nothing.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartBatchRequestDto {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "A batch can contain up to 100 operations")
+    @Valid
+    private List<Operation> operations = new ArrayList<>();
+
+    public enum OperationType {
+        ADD,    // add quantity to the current line
+        SET,    // set the line to quantity; 0 removes it
+        REMOVE  // remove the line
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @Min(value = 0, message = "Quantity cannot be negative")
+        private Integer quantity;
+    }
+}
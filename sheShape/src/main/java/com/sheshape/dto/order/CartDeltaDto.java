@@ -0,0 +1,46 @@
+package com.sheshape.dto.order;
+
+import com.sheshape.model.order.Cart;
+import com.sheshape.model.order.CartItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact result of a single cart mutation: the changed line and the new cart totals.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartDeltaDto {
+
+    private Long cartId;
+    private Long productId;
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private boolean available;
+    private boolean removed;
+    private BigDecimal totalAmount;
+    private Integer totalItems;
+
+    public CartDeltaDto(Cart cart, Long productId) {
+        this.cartId = cart.getId();
+        this.productId = productId;
+        this.totalAmount = cart.getSubtotal();
+        this.totalItems = cart.getItemCount();
+
+        CartItem item = cart.findItem(productId).orElse(null);
+        if (item == null) {
+            this.quantity = 0;
+            this.removed = true;
+        } else {
+            this.quantity = item.getQuantity();
+            this.unitPrice = item.getUnitPrice();
+            this.totalPrice = item.getTotalPrice();
+            this.available = item.isAvailable();
+        }
+    }
+}
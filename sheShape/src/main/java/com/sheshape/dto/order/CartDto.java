@@ -30,8 +30,8 @@ public class CartDto {
         this.id = cart.getId();
         this.userId = cart.getUser() != null ? cart.getUser().getId() : null;
         this.sessionId = cart.getSessionId();
-        this.totalAmount = cart.getTotalAmount();
-        this.totalItems = cart.getTotalItems();
+        this.totalAmount = cart.getSubtotal();
+        this.totalItems = cart.getItemCount();
         this.createdAt = cart.getCreatedAt();
         this.updatedAt = cart.getUpdatedAt();
 
@@ -0,0 +1,22 @@
+package com.sheshape.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartValidationDto {
+
+    private boolean valid;
+    private List<CartValidationIssueDto> issues = new ArrayList<>();
+
+    public CartValidationDto(List<CartValidationIssueDto> issues) {
+        this.valid = issues.isEmpty();
+        this.issues = issues;
+    }
+}
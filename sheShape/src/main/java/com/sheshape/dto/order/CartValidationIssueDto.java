@@ -0,0 +1,32 @@
+package com.sheshape.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cart line that cannot be checked out, and why.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartValidationIssueDto {
+
+    public enum Reason {
+        PRODUCT_INACTIVE,
+        INSUFFICIENT_INVENTORY
+    }
+
+    private Long productId;
+    private Reason reason;
+    private Integer requestedQuantity;
+    private Integer availableQuantity;
+
+    // Used by the validation query's constructor expression
+    public CartValidationIssueDto(Long productId, Boolean active, Integer requestedQuantity, Integer availableQuantity) {
+        this.productId = productId;
+        this.reason = Boolean.TRUE.equals(active) ? Reason.INSUFFICIENT_INVENTORY : Reason.PRODUCT_INACTIVE;
+        this.requestedQuantity = requestedQuantity;
+        this.availableQuantity = availableQuantity;
+    }
+}
@@ -0,0 +1,24 @@
+package com.sheshape.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guest cart rendered from a signed client token. The client stores {@code token} and sends it back
+ * in the X-Guest-Cart header on the next request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GuestCartDto {
+
+    private String token;
+    private List<CartItemDto> items = new ArrayList<>();
+    private BigDecimal totalAmount;
+    private Integer totalItems;
+}
@@ -1,5 +1,6 @@
 package com.sheshape.dto.order;
 
+import com.sheshape.model.order.ArchivedOrder;
 import com.sheshape.model.order.Order;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -64,4 +65,32 @@ public class OrderDto {
                     .collect(Collectors.toList());
         }
     }
-}
\ No newline at end of file
+
+    public OrderDto(ArchivedOrder order) {
+        this.id = order.getId();
+        this.orderNumber = order.getOrderNumber();
+        this.userId = order.getUserId();
+        this.userEmail = order.getUserEmail();
+        this.status = order.getStatus();
+        this.paymentStatus = order.getPaymentStatus();
+        this.paymentMethod = order.getPaymentMethod();
+        this.totalAmount = order.getTotalAmount();
+        this.subtotal = order.getSubtotal();
+        this.taxAmount = order.getTaxAmount();
+        this.shippingAmount = order.getShippingAmount();
+        this.discountAmount = order.getDiscountAmount();
+        this.shippingAddress = order.getShippingAddress();
+        this.billingAddress = order.getBillingAddress();
+        this.customerNotes = order.getCustomerNotes();
+        this.trackingNumber = order.getTrackingNumber();
+        this.estimatedDeliveryDate = order.getEstimatedDeliveryDate();
+        this.createdAt = order.getCreatedAt();
+        this.updatedAt = order.getUpdatedAt();
+
+        if (order.getItems() != null) {
+            this.items = order.getItems().stream()
+                    .map(OrderItemDto::new)
+                    .collect(Collectors.toList());
+        }
+    }
+}
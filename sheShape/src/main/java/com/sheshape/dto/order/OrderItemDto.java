@@ -1,5 +1,6 @@
 package com.sheshape.dto.order;
 
+import com.sheshape.model.order.ArchivedOrderItem;
 import com.sheshape.model.order.OrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -35,4 +36,17 @@ public class OrderItemDto {
         this.discountPrice = orderItem.getDiscountPrice();
         this.totalPrice = orderItem.getTotalPrice();
     }
-}
\ No newline at end of file
+
+    public OrderItemDto(ArchivedOrderItem orderItem) {
+        this.id = orderItem.getId();
+        this.productId = orderItem.getProductId();
+        this.productName = orderItem.getProductName();
+        this.productDescription = orderItem.getProductDescription();
+        this.productCategory = orderItem.getProductCategory();
+        this.productImageUrl = orderItem.getProductImageUrl();
+        this.quantity = orderItem.getQuantity();
+        this.price = orderItem.getPrice();
+        this.discountPrice = orderItem.getDiscountPrice();
+        this.totalPrice = orderItem.getTotalPrice();
+    }
+}
@@ -0,0 +1,20 @@
+package com.sheshape.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A checkout committed; carries the products bought together in that order
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPlacedEventDto {
+
+    private Long orderId;
+    private List<Long> productIds = new ArrayList<>();
+}
@@ -0,0 +1,47 @@
+package com.sheshape.dto.order;
+
+import com.sheshape.model.order.ArchivedOrder;
+import com.sheshape.model.order.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order status change, published in-process and pushed to order status streams
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusEventDto {
+
+    private Long orderId;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private Order.PaymentStatus paymentStatus;
+    private String trackingNumber;
+    private LocalDateTime estimatedDeliveryDate;
+    private LocalDateTime changedAt;
+
+    public OrderStatusEventDto(Order order) {
+        this.orderId = order.getId();
+        this.orderNumber = order.getOrderNumber();
+        this.status = order.getStatus();
+        this.paymentStatus = order.getPaymentStatus();
+        this.trackingNumber = order.getTrackingNumber();
+        this.estimatedDeliveryDate = order.getEstimatedDeliveryDate();
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public OrderStatusEventDto(ArchivedOrder order) {
+        this.orderId = order.getId();
+        this.orderNumber = order.getOrderNumber();
+        this.status = order.getStatus();
+        this.paymentStatus = order.getPaymentStatus();
+        this.trackingNumber = order.getTrackingNumber();
+        this.estimatedDeliveryDate = order.getEstimatedDeliveryDate();
+        // Archived orders no longer change, so report when they last did
+        this.changedAt = order.getUpdatedAt();
+    }
+}
@@ -15,7 +15,9 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 @Entity
-@Table(name = "gym_programs")
+@Table(name = "gym_programs", indexes = {
+        @Index(name = "idx_gym_programs_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,7 +13,9 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 @Entity
-@Table(name = "nutrition_plans")
+@Table(name = "nutrition_plans", indexes = {
+        @Index(name = "idx_nutrition_plans_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -15,15 +17,33 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_products_sku", columnNames = "sku")
+}, indexes = {
+        // In-stock listing: keyset walk by id in index order, with inventory_count > 0 checked per row.
+        // A range on inventory_count would leave id ordered only within each count and force a filesort.
+        @Index(name = "idx_products_active_id", columnList = "is_active, id"),
+        @Index(name = "idx_products_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
+
+    public static final String ID_GENERATOR = "product_ids";
+    public static final int ID_ALLOCATION_SIZE = 50;
     
+    // Ids come from a pooled table generator rather than IDENTITY so inserts can be JDBC-batched;
+    // DatabaseInitializer keeps the generator ahead of existing ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
+    @TableGenerator(name = ID_GENERATOR, table = "id_generators", pkColumnName = "generator",
+            valueColumnName = "next_val", pkColumnValue = "products", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
+
+    // Supplier stock-keeping unit; the natural key for bulk imports
+    @Column(length = 64)
+    private String sku;
     
     @Column(nullable = false)
     private String name;
@@ -40,11 +60,15 @@ public class Product {
     @Column(name = "inventory_count", nullable = false)
     private Integer inventoryCount;
 
+    // Listing pages map every row to a DTO; batch fetching loads a whole page's images and
+    // categories with one IN query per collection instead of one query per product
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("position ASC")
+    @BatchSize(size = 100)
     private List<ProductImage> images = new ArrayList<>();
 
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "product_categories",
             joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "category")
@@ -52,6 +76,16 @@ public class Product {
     
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
+
+    // Review aggregates. Written only by ProductRepository.adjustRating, never by entity flushes,
+    // so concurrent reviews add their deltas instead of overwriting each other.
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer ratingCount = 0;
     
     @CreatedDate
     @Column(name = "created_at", updatable = false)
@@ -61,6 +95,27 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Average star rating rounded to one decimal, or null before the first review
+    public Double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0) {
+            return null;
+        }
+        return Math.round(ratingSum * 10.0 / ratingCount) / 10.0;
+    }
+
+    // Review count as shown: exact below 100, then rounded down to two significant figures ("1.2k reviews")
+    public int getDisplayedRatingCount() {
+        return ratingCount == null ? 0 : displayedRatingCount(ratingCount);
+    }
+
+    public static int displayedRatingCount(int ratingCount) {
+        if (ratingCount < 100) {
+            return ratingCount;
+        }
+        int scale = (int) Math.pow(10, (int) Math.log10(ratingCount) - 1);
+        return ratingCount / scale * scale;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,30 @@
+package com.sheshape.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Serialized copy of an in-memory sketch, saved periodically so its counts survive restarts.
+ */
+@Entity
+@Table(name = "sketch_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SketchSnapshot {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Column(name = "saved_at", nullable = false)
+    private LocalDateTime savedAt;
+}
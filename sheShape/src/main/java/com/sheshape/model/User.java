@@ -39,6 +39,13 @@ public class User {
 
     @Column(name = "profile_completed")
     private Boolean profileCompleted = false;
+
+    // Recently viewed product ids, varint-encoded and most recent first. Owned by RecentlyViewedService,
+    // which writes it lazily; read-only here so saving a user never overwrites newer views.
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Column(name = "recently_viewed", length = 512, insertable = false, updatable = false)
+    private byte[] recentlyViewed;
     
     @CreatedDate
     @Column(name = "created_at", updatable = false)
@@ -0,0 +1,72 @@
+package com.sheshape.model.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_items_archive", indexes = {
+        @Index(name = "idx_order_items_archive_order", columnList = "order_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ArchivedOrder order;
+
+    // Plain column: archived rows must survive product deletion
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "discount_price", precision = 10, scale = 2)
+    private BigDecimal discountPrice;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "product_description", length = 2000)
+    private String productDescription;
+
+    @Column(name = "product_category")
+    private String productCategory;
+
+    @Column(name = "product_image_url")
+    private String productImageUrl;
+
+    public static ArchivedOrderItem from(OrderItem item, ArchivedOrder order) {
+        return ArchivedOrderItem.builder()
+                .id(item.getId())
+                .order(order)
+                .productId(item.getProduct().getId())
+                .quantity(item.getQuantity())
+                .price(item.getPrice())
+                .discountPrice(item.getDiscountPrice())
+                .productName(item.getProductName())
+                .productDescription(item.getProductDescription())
+                .productCategory(item.getProductCategory())
+                .productImageUrl(item.getProductImageUrl())
+                .build();
+    }
+
+    // Helper method to calculate total price for this item
+    public BigDecimal getTotalPrice() {
+        BigDecimal effectivePrice = discountPrice != null ? discountPrice : price;
+        return effectivePrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
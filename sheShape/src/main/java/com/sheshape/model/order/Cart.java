@@ -4,6 +4,7 @@ package com.sheshape.model.order;
 import com.sheshape.model.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
@@ -11,9 +12,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        @Index(name = "idx_carts_updated", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +40,26 @@ public class Cart {
     @Column(name = "session_id")
     private String sessionId; // For guest users
 
+    // Denormalized totals. Written only by CartRepository's set-based updates, never by entity flushes,
+    // so concurrent mutations add their deltas instead of overwriting each other.
+    @Column(name = "item_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer itemCount = 0;
+
+    @Column(name = "subtotal", nullable = false, precision = 12, scale = 2, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    // Set when a product in the cart changes price; the subtotal is recomputed on the next cart read or write.
+    // New carts start with correct (zero) totals; the column defaults to true so rows created before the
+    // totals existed are recomputed once.
+    @Column(name = "totals_stale", nullable = false, updatable = false)
+    @ColumnDefault("true")
+    @Builder.Default
+    private Boolean totalsStale = false;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -48,6 +72,8 @@ public class Cart {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        itemCount = getTotalItems();
+        subtotal = getTotalAmount();
     }
 
     @PreUpdate
@@ -66,6 +92,13 @@ public class Cart {
         item.setCart(null);
     }
 
+    public Optional<CartItem> findItem(Long productId) {
+        return items.stream()
+                .filter(item -> item.getProduct().getId().equals(productId))
+                .findFirst();
+    }
+
+    // Computes the totals from the loaded items; use itemCount/subtotal for the stored values
     public BigDecimal getTotalAmount() {
         return items.stream()
                 .map(CartItem::getTotalPrice)
@@ -55,6 +55,10 @@ public class CartItem {
 
     // Helper methods
     public BigDecimal getUnitPrice() {
+        return unitPriceOf(product);
+    }
+
+    public static BigDecimal unitPriceOf(Product product) {
         return product.getDiscountPrice() != null ? product.getDiscountPrice() : product.getPrice();
     }
 
@@ -2,6 +2,7 @@ package com.sheshape.model.order;
 
 import com.sheshape.model.order.Order;
 import com.sheshape.repository.UserRepository;
+import com.sheshape.repository.order.ArchivedOrderRepository;
 import com.sheshape.repository.order.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Component;
 public class OrderSecurity {
 
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final UserRepository userRepository;
 
     /**
@@ -18,7 +20,9 @@ public class OrderSecurity {
      */
     public boolean isOrderOwner(Long orderId, String userEmail) {
         return orderRepository.findById(orderId)
-                .map(order -> order.getUser().getEmail().equals(userEmail))
+                .map(order -> order.getUser().getEmail())
+                .or(() -> archivedOrderRepository.findUserEmailById(orderId))
+                .map(email -> email.equals(userEmail))
                 .orElse(false);
     }
 
@@ -27,7 +31,9 @@ public class OrderSecurity {
      */
     public boolean isOrderOwnerByNumber(String orderNumber, String userEmail) {
         return orderRepository.findByOrderNumber(orderNumber)
-                .map(order -> order.getUser().getEmail().equals(userEmail))
+                .map(order -> order.getUser().getEmail())
+                .or(() -> archivedOrderRepository.findUserEmailByOrderNumber(orderNumber))
+                .map(email -> email.equals(userEmail))
                 .orElse(false);
     }
 }
\ No newline at end of file
@@ -4,14 +4,23 @@ import com.sheshape.model.BlogPost;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     
     Page<BlogPost> findByIsPublishedTrue(Pageable pageable);
+
+    List<BlogPost> findByIsPublishedTrue();
+
+    // Delta sync: published and unpublished posts changed since a token
+    List<BlogPost> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
     
     List<BlogPost> findByAuthorId(Long authorId);
     
@@ -20,4 +29,8 @@ public interface BlogPostRepository extends JpaRepository<BlogPost, Long> {
     Page<BlogPost> findByCategoryAndIsPublishedTrue(String category, Pageable pageable);
     
     Page<BlogPost> findByTitleContainingIgnoreCaseAndIsPublishedTrue(String keyword, Pageable pageable);
+    
+    // Unpublished posts are access-checked per user, so only published ones get a shared version
+    @Query("SELECT b.updatedAt FROM BlogPost b WHERE b.id = :id AND b.isPublished = true")
+    Optional<LocalDateTime> findPublishedUpdatedAtById(@Param("id") Long id);
 }
\ No newline at end of file
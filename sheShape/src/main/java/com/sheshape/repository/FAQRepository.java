@@ -5,6 +5,7 @@ import com.sheshape.model.FAQ;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +14,7 @@ public interface FAQRepository extends JpaRepository<FAQ, Long> {
     List<FAQ> findByCategory(String category);
     
     List<FAQ> findByOrderByDisplayOrderAsc();
+
+    // Delta sync: FAQs changed since a token
+    List<FAQ> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
\ No newline at end of file
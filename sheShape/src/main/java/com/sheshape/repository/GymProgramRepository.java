@@ -2,9 +2,13 @@ package com.sheshape.repository;
 
 import com.sheshape.model.GymProgram;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface GymProgramRepository extends JpaRepository<GymProgram, Long> {
@@ -12,8 +16,14 @@ public interface GymProgramRepository extends JpaRepository<GymProgram, Long> {
     List<GymProgram> findByTrainerId(Long trainerId);
     
     List<GymProgram> findByIsActiveTrue();
+
+    // Delta sync: active and deactivated programs changed since a token
+    List<GymProgram> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
     
     List<GymProgram> findByTrainerIdAndIsActiveTrue(Long trainerId);
     
     List<GymProgram> findByDifficultyLevel(GymProgram.DifficultyLevel difficultyLevel);
+    
+    @Query("SELECT g.updatedAt FROM GymProgram g WHERE g.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
@@ -2,9 +2,13 @@ package com.sheshape.repository;
 
 import com.sheshape.model.NutritionPlan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NutritionPlanRepository extends JpaRepository<NutritionPlan, Long> {
@@ -12,6 +16,12 @@ public interface NutritionPlanRepository extends JpaRepository<NutritionPlan, Lo
     List<NutritionPlan> findByNutritionistId(Long nutritionistId);
     
     List<NutritionPlan> findByIsActiveTrue();
+
+    // Delta sync: active and deactivated plans changed since a token
+    List<NutritionPlan> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
     
     List<NutritionPlan> findByNutritionistIdAndIsActiveTrue(Long nutritionistId);
+    
+    @Query("SELECT n.updatedAt FROM NutritionPlan n WHERE n.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
\ No newline at end of file
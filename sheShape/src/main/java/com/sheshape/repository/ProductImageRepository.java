@@ -3,9 +3,13 @@ package com.sheshape.repository;
 
 import com.sheshape.model.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
@@ -36,4 +40,33 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, Long
      * @return The number of images
      */
     long countByProductId(Long productId);
-}
\ No newline at end of file
+    
+    /**
+     * Find the first image of a product by position, skipping one image
+     * @param productId The product ID
+     * @param imageId The image to skip
+     * @return The first other image, if the product has one
+     */
+    Optional<ProductImage> findFirstByProductIdAndIdNotOrderByPositionAsc(Long productId, Long imageId);
+    
+    /**
+     * Make one image the product's only main image in a single statement. Only rows whose flag
+     * changes are touched. Managed images are flushed before and detached after.
+     * @param productId The product ID
+     * @param imageId The image that becomes main
+     * @return The number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductImage i SET i.isMain = CASE WHEN i.id = :imageId THEN true ELSE false END " +
+            "WHERE i.product.id = :productId AND (i.isMain = true OR i.id = :imageId)")
+    int switchMainImage(@Param("productId") Long productId, @Param("imageId") Long imageId);
+    
+    /**
+     * Clear the main flag on every image of a product in a single statement
+     * @param productId The product ID
+     * @return The number of rows updated
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductImage i SET i.isMain = false WHERE i.product.id = :productId AND i.isMain = true")
+    int clearMainImage(@Param("productId") Long productId);
+}
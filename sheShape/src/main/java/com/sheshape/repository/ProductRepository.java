@@ -1,26 +1,107 @@
 package com.sheshape.repository;
 
+import com.sheshape.dto.CategoryStatsDto;
+import com.sheshape.dto.ProductRatingDto;
 import com.sheshape.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByIsActiveTrue(Pageable pageable);
 
+    // Delta sync: full catalog for a client without a token
+    List<Product> findByIsActiveTrue();
+
+    // Delta sync: active and deactivated products changed since a token
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+
     // Updated method to find products by category using @Query
     @Query("SELECT DISTINCT p FROM Product p JOIN p.categories c WHERE c = :category AND p.isActive = true")
     Page<Product> findByCategoryAndIsActiveTrue(@Param("category") String category, Pageable pageable);
     Page<Product> findByNameContainingIgnoreCaseAndIsActiveTrue(String keyword, Pageable pageable);
 
-    // Updated method to include category check in query
-    @Query("SELECT p FROM Product p JOIN p.categories c WHERE p.isActive = true AND p.inventoryCount > :minInventory GROUP BY p")
-    List<Product> findByIsActiveTrueAndInventoryCountGreaterThan(int minInventory);
-}
\ No newline at end of file
+    // Keyset page of in-stock products by id; no category join, so uncategorized products are included
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.inventoryCount > 0 AND p.id > :afterId " +
+            "ORDER BY p.id LIMIT :limit")
+    List<Product> findInStockAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Active products with categories in one query, for building in-memory catalog indexes
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.isActive = true")
+    List<Product> findAllActiveWithCategories();
+
+    // Every product (active or not) with categories in one query, for the facet index
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories")
+    List<Product> findAllWithCategories();
+
+    // Current rows of products that changed during an index rebuild; a new transaction so it sees past the rebuild's snapshot
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.id IN :ids")
+    List<Product> findAllWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Existing products for one import batch, matched by SKU
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    long countByIsActiveTrue();
+
+    // Per-category aggregates over active products, computed in the database
+    @Query("SELECT new com.sheshape.dto.CategoryStatsDto(c, COUNT(p), " +
+            "SUM(CASE WHEN p.inventoryCount > 0 THEN 1 ELSE 0 END), SUM(p.inventoryCount), AVG(p.price)) " +
+            "FROM Product p JOIN p.categories c WHERE p.isActive = true GROUP BY c")
+    List<CategoryStatsDto> summarizeCategories();
+
+    // Same aggregates restricted to the given categories, for incremental refreshes
+    @Query("SELECT new com.sheshape.dto.CategoryStatsDto(c, COUNT(p), " +
+            "SUM(CASE WHEN p.inventoryCount > 0 THEN 1 ELSE 0 END), SUM(p.inventoryCount), AVG(p.price)) " +
+            "FROM Product p JOIN p.categories c WHERE p.isActive = true AND c IN :categories GROUP BY c")
+    List<CategoryStatsDto> summarizeCategories(@Param("categories") Collection<String> categories);
+
+    @Query("SELECT DISTINCT c FROM Product p JOIN p.categories c WHERE p.id IN :ids")
+    List<String> findCategoriesByProductIds(@Param("ids") Collection<Long> ids);
+
+    // One product with its images and categories, without needing an open session afterwards
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.images LEFT JOIN FETCH p.categories WHERE p.id = :id")
+    Optional<Product> findWithImagesAndCategoriesById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.images LEFT JOIN FETCH p.categories WHERE p.id IN :ids")
+    List<Product> findWithImagesAndCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bump the version of a product whose dependent rows (images) changed
+    @Modifying
+    @Query("UPDATE Product p SET p.updatedAt = LOCAL DATETIME WHERE p.id = :id")
+    int touch(@Param("id") Long id);
+
+    // Atomic review aggregate change, so concurrent reviews of one product never lose an update
+    @Modifying
+    @Query("UPDATE Product p SET p.ratingSum = p.ratingSum + :sumDelta, p.ratingCount = p.ratingCount + :countDelta " +
+            "WHERE p.id = :id")
+    int adjustRating(@Param("id") Long id, @Param("sumDelta") long sumDelta, @Param("countDelta") int countDelta);
+
+    @Query("SELECT new com.sheshape.dto.ProductRatingDto(p.ratingSum, p.ratingCount) FROM Product p WHERE p.id = :id")
+    Optional<ProductRatingDto> findRatingById(@Param("id") Long id);
+
+    // Conditional decrement so concurrent checkouts can never oversell
+    @Modifying
+    @Query("UPDATE Product p SET p.inventoryCount = p.inventoryCount - :quantity, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.inventoryCount >= :quantity")
+    int decrementInventory(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // In-place increment, so restoring stock can't overwrite a concurrent decrement
+    @Modifying
+    @Query("UPDATE Product p SET p.inventoryCount = p.inventoryCount + :quantity, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id")
+    int incrementInventory(@Param("id") Long id, @Param("quantity") int quantity);
+}
@@ -0,0 +1,28 @@
+package com.sheshape.repository;
+
+import com.sheshape.dto.ProductReviewDto;
+import com.sheshape.model.ProductReview;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
+
+    boolean existsByProductIdAndUserId(Long productId, Long userId);
+
+    /**
+     * One keyset page of a product's reviews, newest first. Projects the author's name directly so
+     * listing a page doesn't load user entities (and their eagerly fetched authorities).
+     */
+    @Query("SELECT new com.sheshape.dto.ProductReviewDto(r.id, r.product.id, u.username, r.rating, r.title, " +
+            "r.comment, r.verifiedPurchase, r.createdAt, r.updatedAt) " +
+            "FROM ProductReview r JOIN r.user u " +
+            "WHERE r.product.id = :productId AND r.id < :beforeId ORDER BY r.id DESC LIMIT :limit")
+    List<ProductReviewDto> findPageBefore(@Param("productId") Long productId,
+                                          @Param("beforeId") long beforeId,
+                                          @Param("limit") int limit);
+}
@@ -2,6 +2,8 @@ package com.sheshape.repository;
 
 import com.sheshape.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByIsActiveTrue();
     Optional<User> findByUsernameOrEmail(String username, String email);
+
+    @Query("SELECT u.recentlyViewed FROM User u WHERE u.email = :email")
+    Optional<byte[]> findRecentlyViewedByEmail(@Param("email") String email);
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.sheshape.repository.order;
+
+import com.sheshape.dto.ProductSalesDto;
+import com.sheshape.model.order.ArchivedOrder;
+import com.sheshape.model.order.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find archived order with items by order number
+     */
+    @Query("SELECT a FROM ArchivedOrder a LEFT JOIN FETCH a.items WHERE a.orderNumber = :orderNumber")
+    Optional<ArchivedOrder> findByOrderNumberWithItems(@Param("orderNumber") String orderNumber);
+
+    /**
+     * Find archived order with items by its original order ID
+     */
+    @Query("SELECT a FROM ArchivedOrder a LEFT JOIN FETCH a.items WHERE a.id = :orderId")
+    Optional<ArchivedOrder> findByIdWithItems(@Param("orderId") Long orderId);
+
+    /**
+     * (id, createdAt) of a user's newest archived orders, for merging with the hot table
+     */
+    @Query("SELECT a.id, a.createdAt FROM ArchivedOrder a WHERE a.userId = :userId " +
+            "ORDER BY a.createdAt DESC, a.id DESC LIMIT :limit")
+    List<Object[]> findUserOrderKeys(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Find archived orders with items eagerly loaded
+     */
+    @Query("SELECT DISTINCT a FROM ArchivedOrder a LEFT JOIN FETCH a.items WHERE a.id IN :orderIds")
+    List<ArchivedOrder> findAllByIdInWithItems(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Owner email of an archived order, used by order security checks
+     */
+    @Query("SELECT a.userEmail FROM ArchivedOrder a WHERE a.id = :orderId")
+    Optional<String> findUserEmailById(@Param("orderId") Long orderId);
+
+    /**
+     * Owner email of an archived order by order number
+     */
+    @Query("SELECT a.userEmail FROM ArchivedOrder a WHERE a.orderNumber = :orderNumber")
+    Optional<String> findUserEmailByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    /**
+     * Count user's archived orders
+     */
+    long countByUserId(Long userId);
+
+    /**
+     * Whether the user has an archived order containing the product in one of the given statuses
+     */
+    @Query("SELECT COUNT(i) > 0 FROM ArchivedOrderItem i " +
+            "WHERE i.productId = :productId AND i.order.userId = :userId AND i.order.status IN :statuses")
+    boolean existsPurchase(@Param("userId") Long userId, @Param("productId") Long productId,
+                           @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    /**
+     * Units sold per product in archived orders, added to the live totals for popularity
+     */
+    @Query("SELECT new com.sheshape.dto.ProductSalesDto(i.productId, SUM(i.quantity)) " +
+            "FROM ArchivedOrderItem i GROUP BY i.productId")
+    List<ProductSalesDto> sumQuantityByProduct();
+
+    /**
+     * A keyset page of archived (order id, product id) pairs grouped by order, for co-occurrence counting.
+     * The last order of a full page may continue on the next one.
+     */
+    @Query("SELECT i.order.id, i.productId FROM ArchivedOrderItem i WHERE i.order.id > :afterOrderId " +
+            "ORDER BY i.order.id, i.productId LIMIT :limit")
+    List<Object[]> findOrderProductPairsAfter(@Param("afterOrderId") long afterOrderId, @Param("limit") int limit);
+}
@@ -1,11 +1,14 @@
 package com.sheshape.repository.order;
 
+import com.sheshape.dto.order.CartValidationIssueDto;
 import com.sheshape.model.order.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,11 +37,26 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     @Query("SELECT COALESCE(SUM(ci.quantity), 0) FROM CartItem ci WHERE ci.cart.id = :cartId")
     Integer countTotalItemsInCart(@Param("cartId") Long cartId);
 
+    /**
+     * Find the lines of a user's cart that cannot be checked out (inactive product or not enough stock)
+     */
+    @Query("SELECT new com.sheshape.dto.order.CartValidationIssueDto(p.id, p.isActive, ci.quantity, p.inventoryCount) " +
+            "FROM CartItem ci JOIN ci.product p " +
+            "WHERE ci.cart.user.id = :userId AND (p.isActive = false OR p.inventoryCount < ci.quantity)")
+    List<CartValidationIssueDto> findInvalidItemsByUserId(@Param("userId") Long userId);
+
     /**
      * Delete all items from a cart
      */
     void deleteByCartId(Long cartId);
 
+    /**
+     * Bulk delete the items of the given carts
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds")
+    int deleteByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+
     /**
      * Delete item by cart and product
      */
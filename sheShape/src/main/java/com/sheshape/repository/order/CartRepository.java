@@ -1,11 +1,17 @@
 package com.sheshape.repository.order;
 
 import com.sheshape.model.order.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -27,14 +33,60 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items ci LEFT JOIN FETCH ci.product p WHERE c.user.id = :userId")
     Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
 
+    /**
+     * Apply a mutation's delta to the denormalized totals
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.itemCount = c.itemCount + :quantityDelta, c.subtotal = c.subtotal + :amountDelta, " +
+            "c.updatedAt = LOCAL DATETIME WHERE c.id = :cartId")
+    int adjustTotals(@Param("cartId") Long cartId,
+                     @Param("quantityDelta") int quantityDelta,
+                     @Param("amountDelta") BigDecimal amountDelta);
+
+    /**
+     * Overwrite the denormalized totals with freshly computed values and clear the stale flag
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.itemCount = :itemCount, c.subtotal = :subtotal, c.totalsStale = false, " +
+            "c.updatedAt = LOCAL DATETIME WHERE c.id = :cartId")
+    int setTotals(@Param("cartId") Long cartId,
+                  @Param("itemCount") int itemCount,
+                  @Param("subtotal") BigDecimal subtotal);
+
+    /**
+     * Flag every cart holding the product for subtotal recomputation (after a price change)
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalsStale = true WHERE c.id IN " +
+            "(SELECT ci.cart.id FROM CartItem ci WHERE ci.product.id = :productId)")
+    int markTotalsStaleForProduct(@Param("productId") Long productId);
+
+    /**
+     * Flag every cart holding any of the products for subtotal recomputation (after bulk price changes)
+     */
+    @Modifying
+    @Query("UPDATE Cart c SET c.totalsStale = true WHERE c.id IN " +
+            "(SELECT ci.cart.id FROM CartItem ci WHERE ci.product.id IN :productIds)")
+    int markTotalsStaleForProducts(@Param("productIds") Collection<Long> productIds);
+
     /**
      * Check if user has an active cart
      */
     boolean existsByUserId(Long userId);
 
     /**
-     * Delete empty carts (optimization for cleanup job)
+     * Delete all empty carts in one statement. The scheduled reaper deletes in bounded chunks instead.
      */
+    @Modifying
     @Query("DELETE FROM Cart c WHERE c.items IS EMPTY")
-    void deleteEmptyCarts();
+    int deleteEmptyCarts();
+
+    /**
+     * Find a chunk of carts that were abandoned, or are empty and past the grace period
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.updatedAt < :abandonedBefore " +
+            "OR (c.updatedAt < :emptyBefore AND c.items IS EMPTY) ORDER BY c.id")
+    List<Long> findReapableCartIds(@Param("abandonedBefore") LocalDateTime abandonedBefore,
+                                   @Param("emptyBefore") LocalDateTime emptyBefore,
+                                   Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.sheshape.repository.order;
+
+import com.sheshape.dto.ProductSalesDto;
+import com.sheshape.model.order.Order;
+import com.sheshape.model.order.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * Bulk delete the items of the given orders
+     */
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Units sold per product, used as a popularity signal
+     */
+    @Query("SELECT new com.sheshape.dto.ProductSalesDto(oi.product.id, SUM(oi.quantity)) " +
+            "FROM OrderItem oi GROUP BY oi.product.id")
+    List<ProductSalesDto> sumQuantityByProduct();
+
+    /**
+     * Whether the user has an order containing the product in one of the given statuses
+     */
+    @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi " +
+            "WHERE oi.product.id = :productId AND oi.order.user.id = :userId AND oi.order.status IN :statuses")
+    boolean existsPurchase(@Param("userId") Long userId, @Param("productId") Long productId,
+                           @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    /**
+     * A keyset page of (order id, product id) pairs grouped by order, for co-occurrence counting.
+     * The last order of a full page may continue on the next one.
+     */
+    @Query("SELECT oi.order.id, oi.product.id FROM OrderItem oi WHERE oi.order.id > :afterOrderId " +
+            "ORDER BY oi.order.id, oi.product.id LIMIT :limit")
+    List<Object[]> findOrderProductPairsAfter(@Param("afterOrderId") long afterOrderId, @Param("limit") int limit);
+}
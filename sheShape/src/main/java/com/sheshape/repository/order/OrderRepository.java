@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
+    /**
+     * (id, createdAt) of a user's newest orders, for merging with the archive
+     */
+    @Query("SELECT o.id, o.createdAt FROM Order o WHERE o.user.id = :userId " +
+            "ORDER BY o.createdAt DESC, o.id DESC LIMIT :limit")
+    List<Object[]> findUserOrderKeys(@Param("userId") Long userId, @Param("limit") int limit);
+
     /**
      * Find orders by status
      */
@@ -67,4 +75,18 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.createdAt DESC")
     List<Order> findOrdersBetweenDates(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Find IDs of finished orders untouched since the cutoff (archival candidates)
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableOrderIds(@Param("statuses") Collection<Order.OrderStatus> statuses,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      Pageable pageable);
+
+    /**
+     * Find orders with items and user eagerly loaded
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items LEFT JOIN FETCH o.user WHERE o.id IN :orderIds")
+    List<Order> findAllByIdInWithItems(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,137 @@
+package com.sheshape.security;
+
+import com.sheshape.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes guest carts as signed tokens held by the client, so anonymous carts cost no database rows.
+ *
+ * Token layout: base64url("1|issuedAtEpochSeconds|productId:quantity,...") + "." + base64url(HMAC-SHA256).
+ * Numbers are written in base 36 to keep the token short. Without a guest-cart.secret the signing key
+ * is derived from jwt.secret, so the JWT key itself never signs a second token format.
+ */
+@Component
+public class GuestCartTokenUtil {
+
+    private static final String VERSION = "1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String DERIVED_KEY_LABEL = "sheshape-guest-cart-v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec signingKey;
+    private final Duration timeToLive;
+    private final int maxItems;
+
+    public GuestCartTokenUtil(@Value("${guest-cart.secret:}") String secret,
+                              @Value("${jwt.secret}") String jwtSecret,
+                              @Value("${guest-cart.ttl-days:30}") long ttlDays,
+                              @Value("${guest-cart.max-items:50}") int maxItems) {
+        byte[] keyBytes = secret.isBlank()
+                ? hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM),
+                        DERIVED_KEY_LABEL.getBytes(StandardCharsets.UTF_8))
+                : secret.getBytes(StandardCharsets.UTF_8);
+        this.signingKey = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.timeToLive = Duration.ofDays(ttlDays);
+        this.maxItems = maxItems;
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Sign the given product id to quantity lines into a fresh token
+     */
+    public String encode(Map<Long, Integer> items) {
+        if (items.size() > maxItems) {
+            throw new BadRequestException("Guest cart cannot hold more than " + maxItems + " different products");
+        }
+
+        StringBuilder payload = new StringBuilder(VERSION)
+                .append('|')
+                .append(Long.toString(Instant.now().getEpochSecond(), 36))
+                .append('|');
+        boolean first = true;
+        for (Map.Entry<Long, Integer> item : items.entrySet()) {
+            if (!first) {
+                payload.append(',');
+            }
+            payload.append(Long.toString(item.getKey(), 36)).append(':').append(Integer.toString(item.getValue(), 36));
+            first = false;
+        }
+
+        byte[] payloadBytes = payload.toString().getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Verify a token and return its lines in insertion order. A missing or expired token is an empty cart.
+     */
+    public Map<Long, Integer> decode(String token) {
+        Map<Long, Integer> items = new LinkedHashMap<>();
+        if (token == null || token.isBlank()) {
+            return items;
+        }
+
+        try {
+            int separator = token.indexOf('.');
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                throw new BadRequestException("Invalid guest cart token");
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid guest cart token");
+            }
+
+            Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(parts[1], 36));
+            if (issuedAt.plus(timeToLive).isBefore(Instant.now())) {
+                return items;
+            }
+
+            if (!parts[2].isEmpty()) {
+                for (String line : parts[2].split(",")) {
+                    int colon = line.indexOf(':');
+                    int quantity = Integer.parseInt(line.substring(colon + 1), 36);
+                    if (quantity <= 0) {
+                        throw new BadRequestException("Invalid guest cart token");
+                    }
+                    items.merge(Long.parseLong(line.substring(0, colon), 36), quantity, Integer::sum);
+                }
+            }
+            return items;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Covers malformed base64 and numbers (NumberFormatException is an IllegalArgumentException)
+            throw new BadRequestException("Invalid guest cart token");
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return hmac(signingKey, payload);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign guest cart token", e);
+        }
+    }
+}
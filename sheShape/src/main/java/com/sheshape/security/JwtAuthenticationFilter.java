@@ -1,88 +0,0 @@
-package com.sheshape.security;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sheshape.dto.AuthDTO;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
-
-public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
-
-    private final AuthenticationManager authenticationManager;
-    private final JwtUtil jwtUtil;
-
-
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
-        this.authenticationManager = authenticationManager;
-        this.jwtUtil = jwtUtil;
-        setFilterProcessesUrl("/api/auth/login");
-    }
-
-    @Override
-    public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) 
-            throws AuthenticationException {
-        try {
-            AuthDTO.AuthRequest authRequest = new ObjectMapper()
-                    .readValue(request.getInputStream(), AuthDTO.AuthRequest.class);
-
-            return authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            authRequest.getEmail(),
-                            authRequest.getPassword()
-                    )
-            );
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    @Override
-    protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response,
-                                            FilterChain chain, Authentication authResult) 
-            throws IOException, ServletException {
-        
-        UserDetails userDetails = (UserDetails) authResult.getPrincipal();
-        String token = jwtUtil.generateToken(userDetails);
-        
-        // Get user authorities (roles)
-        String authorities = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
-        
-        // Create auth response
-        AuthDTO.AuthResponse authResponse = new AuthDTO.AuthResponse(token, authorities);
-        
-        // Write response
-        response.setContentType("application/json");
-        response.getWriter().write(new ObjectMapper().writeValueAsString(authResponse));
-    }
-
-    @Override
-    protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response,
-                                              AuthenticationException failed) 
-            throws IOException, ServletException {
-        
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        
-        // Create error response
-        Map<String, String> errorDetails = new HashMap<>();
-        errorDetails.put("message", "Authentication failed: " + failed.getMessage());
-        
-        // Write response
-        response.getWriter().write(new ObjectMapper().writeValueAsString(errorDetails));
-    }
-}
\ No newline at end of file
@@ -4,7 +4,9 @@ import com.sheshape.dto.BlogPostDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface BlogService {
     
@@ -14,6 +16,9 @@ public interface BlogService {
     
     BlogPostDto getPostById(Long id);
     
+    // Version (updatedAt) of a published post, for conditional requests; empty otherwise
+    Optional<LocalDateTime> getPublishedPostVersion(Long id);
+    
     List<BlogPostDto> getPostsByAuthor(Long authorId);
     
     Page<BlogPostDto> getPostsByCategory(String category, Pageable pageable);
@@ -4,7 +4,9 @@ import com.sheshape.dto.GymProgramDto;
 import com.sheshape.dto.GymSessionDto;
 import com.sheshape.dto.UserGymProgramDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface GymProgramService {
     
@@ -15,6 +17,9 @@ public interface GymProgramService {
     
     GymProgramDto getGymProgramById(Long id);
     
+    // Version (updatedAt) of a program, for conditional requests; empty if it doesn't exist
+    Optional<LocalDateTime> getGymProgramVersion(Long id);
+    
     List<GymProgramDto> getGymProgramsByTrainer(Long trainerId);
     
     GymProgramDto createGymProgram(GymProgramDto gymProgramDto);
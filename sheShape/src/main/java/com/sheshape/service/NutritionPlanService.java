@@ -3,7 +3,9 @@ package com.sheshape.service;
 import com.sheshape.dto.NutritionPlanDto;
 import com.sheshape.dto.UserNutritionPlanDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface NutritionPlanService {
     
@@ -13,6 +15,9 @@ public interface NutritionPlanService {
     
     NutritionPlanDto getNutritionPlanById(Long id);
     
+    // Version (updatedAt) of a plan, for conditional requests; empty if it doesn't exist
+    Optional<LocalDateTime> getNutritionPlanVersion(Long id);
+    
     List<NutritionPlanDto> getNutritionPlansByNutritionist(Long nutritionistId);
     
     NutritionPlanDto createNutritionPlan(NutritionPlanDto nutritionPlanDto);
@@ -55,5 +55,12 @@ public interface ProductCategoryService {
      */
     List<String> getCategoriesWithStock();
 
+    /**
+     * Whether the category has active products, from the in-memory summary
+     * @param category Category name
+     * @return True if the category is known
+     */
+    boolean hasCategory(String category);
+
     List<String> getProductCategories();
 }
\ No newline at end of file
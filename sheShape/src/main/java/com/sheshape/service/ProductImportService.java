@@ -0,0 +1,31 @@
+package com.sheshape.service;
+
+import com.sheshape.dto.ProductImportResultDto;
+import com.sheshape.dto.ProductImportRowDto;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface ProductImportService {
+
+    enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Stream a CSV (with header row) or NDJSON catalog into the products table, upserting by SKU.
+     * Rows are committed in batches; invalid rows are reported and skipped.
+     * @param input Import body, UTF-8
+     * @param format Input format
+     * @return Counts and per-row errors
+     */
+    ProductImportResultDto importProducts(InputStream input, Format format);
+
+    /**
+     * Upsert one batch of rows in its own transaction
+     * @param rows Parsed rows
+     * @return Counts and per-row validation errors for this batch
+     */
+    ProductImportResultDto importBatch(List<ProductImportRowDto> rows);
+}
@@ -0,0 +1,44 @@
+package com.sheshape.service;
+
+import com.sheshape.dto.KeysetPageDto;
+import com.sheshape.dto.ProductReviewDto;
+
+public interface ProductReviewService {
+
+    /**
+     * One page of a product's reviews, newest first
+     * @param productId Product ID
+     * @param after nextCursor of the previous page, or null for the first page
+     * @param size Page size
+     * @return The page
+     */
+    KeysetPageDto<ProductReviewDto> getReviews(Long productId, String after, int size);
+
+    /**
+     * Review a product; each user can review a product once
+     * @param productId Product ID
+     * @param userId Author
+     * @param reviewDto Rating, title and comment
+     * @return The created review
+     */
+    ProductReviewDto createReview(Long productId, Long userId, ProductReviewDto reviewDto);
+
+    /**
+     * Change the author's own review
+     * @param productId Product ID
+     * @param reviewId Review ID
+     * @param userId Author
+     * @param reviewDto New rating, title and comment
+     * @return The updated review
+     */
+    ProductReviewDto updateReview(Long productId, Long reviewId, Long userId, ProductReviewDto reviewDto);
+
+    /**
+     * Delete a review; only its author or an admin may
+     * @param productId Product ID
+     * @param reviewId Review ID
+     * @param userId Current user
+     * @param admin Whether the current user is an admin
+     */
+    void deleteReview(Long productId, Long reviewId, Long userId, boolean admin);
+}
@@ -1,24 +1,50 @@
 package com.sheshape.service;
 
+import com.sheshape.dto.KeysetPageDto;
+import com.sheshape.dto.ProductCardDto;
 import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.ProductFilterResultDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ProductService {
     
     Page<ProductDto> getAllActiveProducts(Pageable pageable);
     
+    Page<ProductCardDto> getActiveProductCards(Pageable pageable);
+    
     Page<ProductDto> getAllProducts(Pageable pageable);
     
     ProductDto getProductById(Long id);
+
+    /**
+     * Several products through the product cache, loading all misses with one query
+     * @param ids Product IDs
+     * @return The products that exist, in the order of the given ids
+     */
+    List<ProductDto> getProductsByIds(List<Long> ids);
     
     Page<ProductDto> getProductsByCategory(String category, Pageable pageable);
     
+    Page<ProductCardDto> getProductCardsByCategory(String category, Pageable pageable);
+    
     Page<ProductDto> searchProducts(String keyword, Pageable pageable);
     
-    List<ProductDto> getProductsInStock();
+    Page<ProductCardDto> searchProductCards(String keyword, Pageable pageable);
+    
+    ProductFilterResultDto filterProducts(Set<String> categories, Set<String> priceBuckets, Boolean inStock,
+                                          Pageable pageable);
+    
+    /**
+     * Active products with stock, ordered by id
+     * @param after Cursor from the previous page, or null for the first page
+     * @param size Page size
+     * @return The page and the cursor for the next one
+     */
+    KeysetPageDto<ProductDto> getProductsInStock(String after, int size);
     
     ProductDto createProduct(ProductDto productDto);
     
@@ -31,4 +57,6 @@ public interface ProductService {
     void deleteProduct(Long id);
     
     boolean updateInventory(Long id, int quantity);
+
+    void restoreInventory(Long id, int quantity);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.sheshape.service;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs, backed by the scheduler_locks table.
+ */
+public interface SchedulerLockService {
+
+    /**
+     * Try to take the named lock for the given lease. Returns false if another node holds it.
+     */
+    boolean tryAcquire(String name, Duration lease);
+
+    /**
+     * Release the named lock if this node holds it
+     */
+    void release(String name);
+}
@@ -0,0 +1,13 @@
+package com.sheshape.service;
+
+import com.sheshape.dto.SyncResponseDto;
+
+public interface SyncService {
+
+    /**
+     * Catalog, program, plan, blog and FAQ changes since a token
+     * @param since Token from the previous sync, or null for a full sync
+     * @return The changes and the token for the next sync
+     */
+    SyncResponseDto getChangesSince(String since);
+}
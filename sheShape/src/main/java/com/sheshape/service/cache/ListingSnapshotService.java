@@ -0,0 +1,44 @@
+package com.sheshape.service.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Fully serialized responses for hot storefront listings (first pages of product, category and
+ * in-stock lists), kept as JSON and gzip bytes. Catalog writes mark every snapshot stale; stale
+ * snapshots keep being served while a background refresh re-renders them.
+ */
+public interface ListingSnapshotService {
+
+    /**
+     * Return the snapshot for a listing, rendering it on first use. Concurrent first requests for the
+     * same key share one render.
+     * @param key Endpoint and normalized parameters
+     * @param renderer Produces the response body; called again in the background after catalog changes
+     * @return The snapshot, possibly stale by up to one refresh
+     */
+    Snapshot get(String key, Supplier<?> renderer);
+
+    /**
+     * Whether a listing page is hot enough to be snapshotted
+     * @param page Zero-based page number
+     * @param size Page size
+     */
+    boolean covers(int page, int size);
+
+    /**
+     * Drop every snapshot
+     */
+    void clear();
+
+    @Getter
+    @AllArgsConstructor
+    final class Snapshot {
+        private final byte[] json;
+        private final byte[] gzip;
+        // Quoted strong ETag of the identity representation
+        private final String eTag;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sheshape.service.cache;
+
+import com.sheshape.dto.ProductDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of single-product DTOs, invalidated after every committed product write
+ */
+public interface ProductCacheService {
+
+    /**
+     * Return the cached product, loading it on a miss. Concurrent misses for the same id share one load.
+     * The returned DTO is shared between callers and must not be modified.
+     * @param productId Product ID
+     * @param loader Loads the product from the database; exceptions propagate to every waiting caller
+     * @return The product
+     */
+    ProductDto get(Long productId, Function<Long, ProductDto> loader);
+
+    /**
+     * Return the cached products, loading all misses with one call to the loader. Unlike {@link #get},
+     * concurrent batch misses are not coalesced.
+     * @param productIds Product IDs
+     * @param loader Loads the missing products from the database; ids it doesn't return are skipped
+     * @return The products found, in the order of the given ids
+     */
+    List<ProductDto> getAll(Collection<Long> productIds, Function<Collection<Long>, List<ProductDto>> loader);
+
+    /**
+     * Drop the cached product and discard any load that started before this call
+     * @param productId Product ID
+     */
+    void invalidate(Long productId);
+
+    /**
+     * Drop every cached product
+     */
+    void clear();
+}
@@ -0,0 +1,259 @@
+package com.sheshape.service.cache.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
+import com.sheshape.dto.ProductImageChangeEventDto;
+import com.sheshape.dto.ProductInventoryChangeEventDto;
+import com.sheshape.dto.ProductRatingChangeEventDto;
+import com.sheshape.service.cache.ListingSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshots are tagged with the catalog version they were rendered at. Catalog events bump the
+ * version and schedule a debounced refresh; until it runs, readers get the previous bytes. The
+ * refresh re-renders snapshots that were read recently and drops the ones that went cold. When the
+ * table is full, a new page replaces the one read least recently.
+ */
+@Service
+@Slf4j
+public class ListingSnapshotServiceImpl implements ListingSnapshotService {
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "listing-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    @Value("${products.snapshots.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${products.snapshots.max-page:2}")
+    private int maxPage;
+
+    @Value("${products.snapshots.max-page-size:48}")
+    private int maxPageSize;
+
+    @Value("${products.snapshots.refresh-delay-ms:500}")
+    private long refreshDelayMs;
+
+    @Value("${products.snapshots.idle-ttl-ms:600000}")
+    private long idleTtlMs;
+
+    public ListingSnapshotServiceImpl(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hits = meterRegistry.counter("products.snapshots.hits");
+        this.staleHits = meterRegistry.counter("products.snapshots.stale-hits");
+        this.misses = meterRegistry.counter("products.snapshots.misses");
+        meterRegistry.gauge("products.snapshots.size", entries, Map::size);
+    }
+
+    @Override
+    public Snapshot get(String key, Supplier<?> renderer) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastRead = System.currentTimeMillis();
+            if (entry.version == catalogVersion.get()) {
+                hits.increment();
+            } else {
+                // Serve the old bytes; the refresh is normally already queued by the catalog event
+                staleHits.increment();
+                scheduleRefresh();
+            }
+            return entry.snapshot;
+        }
+        misses.increment();
+
+        CompletableFuture<Entry> render = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, render);
+        if (existing != null) {
+            return await(existing).snapshot;
+        }
+
+        try {
+            Entry rendered = render(renderer);
+            if (entries.size() >= maxEntries) {
+                evictLeastRecentlyRead();
+            }
+            entries.put(key, rendered);
+            render.complete(rendered);
+            return rendered.snapshot;
+        } catch (RuntimeException e) {
+            render.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, render);
+        }
+    }
+
+    @Override
+    public boolean covers(int page, int size) {
+        return page >= 0 && page < maxPage && size > 0 && size <= maxPageSize;
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry render(Supplier<?> renderer) {
+        // Read the version first: a write landing mid-render leaves the result stale, never wrongly fresh
+        long version = catalogVersion.get();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(renderer.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize listing snapshot", e);
+        }
+
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        return new Entry(new Snapshot(json, gzip(json), eTag), renderer, version);
+    }
+
+    private void evictLeastRecentlyRead() {
+        // A linear scan is cheap next to the render that led here, and keeps reads lock-free
+        String eldestKey = null;
+        long eldestRead = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            if (mapEntry.getValue().lastRead < eldestRead) {
+                eldestRead = mapEntry.getValue().lastRead;
+                eldestKey = mapEntry.getKey();
+            }
+        }
+        if (eldestKey != null) {
+            entries.remove(eldestKey);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry await(CompletableFuture<Entry> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void catalogChanged() {
+        catalogVersion.incrementAndGet();
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        // Coalesce bursts of catalog writes (a checkout touches several products) into one refresh
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::refreshInBackground, refreshDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshInBackground() {
+        refreshScheduled.set(false);
+        long started = System.currentTimeMillis();
+        long idleSince = started - idleTtlMs;
+        int refreshed = 0;
+
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.version == catalogVersion.get()) {
+                continue;
+            }
+            if (entry.lastRead < idleSince) {
+                entries.remove(mapEntry.getKey(), entry);
+                continue;
+            }
+            try {
+                Entry rendered = render(entry.renderer);
+                rendered.lastRead = entry.lastRead;
+                entries.replace(mapEntry.getKey(), entry, rendered);
+                refreshed++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh listing snapshot {}, serving the previous one", mapEntry.getKey(), e);
+            }
+        }
+
+        log.debug("Refreshed {} listing snapshots in {} ms", refreshed, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        catalogChanged();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangeEventDto event) {
+        catalogChanged();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesChanged(ProductImageChangeEventDto event) {
+        catalogChanged();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangeEventDto event) {
+        catalogChanged();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        catalogChanged();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Entry {
+        private final Snapshot snapshot;
+        private final Supplier<?> renderer;
+        private final long version;
+        private volatile long lastRead = System.currentTimeMillis();
+
+        private Entry(Snapshot snapshot, Supplier<?> renderer, long version) {
+            this.snapshot = snapshot;
+            this.renderer = renderer;
+            this.version = version;
+        }
+    }
+}
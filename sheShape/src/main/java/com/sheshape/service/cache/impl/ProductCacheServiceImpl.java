@@ -0,0 +1,242 @@
+package com.sheshape.service.cache.impl;
+
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
+import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.ProductImageChangeEventDto;
+import com.sheshape.dto.ProductInventoryChangeEventDto;
+import com.sheshape.dto.ProductRatingChangeEventDto;
+import com.sheshape.service.cache.ProductCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * LRU map guarded by its own monitor, plus a map of in-flight loads for single-flight misses.
+ *
+ * Every invalidation stamps its product with the next value of a sequence; a load only installs its
+ * result if that product was not stamped after the load started, so a read that raced a write can
+ * never re-cache the old version while loads of other products go through. Stamps are kept only
+ * as long as a load older than them is still running. Entries are versioned by the product's
+ * updatedAt and an older version never replaces a newer one.
+ */
+@Service
+public class ProductCacheServiceImpl implements ProductCacheService {
+
+    private final int maxEntries;
+    private final Map<Long, ProductDto> entries;
+    private final ConcurrentMap<Long, CompletableFuture<ProductDto>> inFlight = new ConcurrentHashMap<>();
+    // All guarded by the entries monitor
+    private long sequence;
+    private long clearedAt;
+    private final LinkedHashMap<Long, Long> invalidatedAt = new LinkedHashMap<>();
+    private final TreeMap<Long, Integer> runningLoads = new TreeMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductCacheServiceImpl(@Value("${products.cache.max-entries:10000}") int maxEntries,
+                                   MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ProductDto> eldest) {
+                return size() > ProductCacheServiceImpl.this.maxEntries;
+            }
+        };
+
+        this.hits = meterRegistry.counter("products.cache.hits");
+        this.misses = meterRegistry.counter("products.cache.misses");
+        meterRegistry.gauge("products.cache.size", this, cache -> cache.size());
+    }
+
+    @Override
+    public ProductDto get(Long productId, Function<Long, ProductDto> loader) {
+        synchronized (entries) {
+            ProductDto cached = entries.get(productId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        CompletableFuture<ProductDto> load = new CompletableFuture<>();
+        CompletableFuture<ProductDto> existing = inFlight.putIfAbsent(productId, load);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        long loadStartedAt = startLoad();
+        try {
+            ProductDto product = loader.apply(productId);
+            install(productId, product, loadStartedAt);
+            load.complete(product);
+            return product;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            finishLoad(loadStartedAt);
+            inFlight.remove(productId, load);
+        }
+    }
+
+    @Override
+    public List<ProductDto> getAll(Collection<Long> productIds, Function<Collection<Long>, List<ProductDto>> loader) {
+        Map<Long, ProductDto> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (Long productId : productIds) {
+                ProductDto cached = entries.get(productId);
+                if (cached != null) {
+                    found.put(productId, cached);
+                } else {
+                    missing.add(productId);
+                }
+            }
+        }
+        hits.increment(found.size());
+
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            long loadStartedAt = startLoad();
+            try {
+                for (ProductDto product : loader.apply(missing)) {
+                    install(product.getId(), product, loadStartedAt);
+                    found.put(product.getId(), product);
+                }
+            } finally {
+                finishLoad(loadStartedAt);
+            }
+        }
+
+        List<ProductDto> products = new ArrayList<>(found.size());
+        for (Long productId : productIds) {
+            ProductDto product = found.get(productId);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private long startLoad() {
+        synchronized (entries) {
+            runningLoads.merge(sequence, 1, Integer::sum);
+            return sequence;
+        }
+    }
+
+    private void finishLoad(long loadStartedAt) {
+        synchronized (entries) {
+            runningLoads.computeIfPresent(loadStartedAt, (startedAt, count) -> count > 1 ? count - 1 : null);
+            // Stamps at or below the oldest running load can no longer reject anything
+            long oldestLoad = runningLoads.isEmpty() ? sequence : runningLoads.firstKey();
+            Iterator<Long> stamps = invalidatedAt.values().iterator();
+            while (stamps.hasNext() && stamps.next() <= oldestLoad) {
+                stamps.remove();
+            }
+        }
+    }
+
+    private void install(Long productId, ProductDto product, long loadStartedAt) {
+        synchronized (entries) {
+            if (clearedAt > loadStartedAt || invalidatedAt.getOrDefault(productId, 0L) > loadStartedAt) {
+                return;
+            }
+            ProductDto current = entries.get(productId);
+            if (current == null || !isNewer(current.getUpdatedAt(), product.getUpdatedAt())) {
+                entries.put(productId, product);
+            }
+        }
+    }
+
+    private static boolean isNewer(LocalDateTime version, LocalDateTime than) {
+        return version != null && than != null && version.isAfter(than);
+    }
+
+    private static ProductDto await(CompletableFuture<ProductDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void invalidate(Long productId) {
+        synchronized (entries) {
+            entries.remove(productId);
+            if (!runningLoads.isEmpty()) {
+                // Re-inserted so the map stays ordered by stamp
+                invalidatedAt.remove(productId);
+                invalidatedAt.put(productId, ++sequence);
+            }
+        }
+        // Later readers must not join a load that may have read the old row
+        inFlight.remove(productId);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            clearedAt = ++sequence;
+            invalidatedAt.clear();
+        }
+        inFlight.clear();
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangeEventDto event) {
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesChanged(ProductImageChangeEventDto event) {
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangeEventDto event) {
+        invalidate(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        clear();
+    }
+}
@@ -14,7 +14,9 @@ import com.sheshape.repository.profile.ProfileRepository;
 import com.sheshape.repository.UserRepository;
 import com.sheshape.security.JwtUtil;
 import com.sheshape.service.AuthService;
+import com.sheshape.service.order.CartService;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -29,6 +31,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
@@ -37,6 +40,7 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final CartService cartService;
 
     public AuthServiceImpl(
             UserRepository userRepository,
@@ -44,13 +48,15 @@ public class AuthServiceImpl implements AuthService {
             AuthorityRepository authorityRepository,
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
-            JwtUtil jwtUtil) {
+            JwtUtil jwtUtil,
+            CartService cartService) {
         this.userRepository = userRepository;
         this.profileRepository = profileRepository;
         this.authorityRepository = authorityRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.cartService = cartService;
     }
 
     @Override
@@ -128,6 +134,15 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userDetails.getUsername()));
         
+        if (loginRequest.getGuestCartToken() != null && !loginRequest.getGuestCartToken().isBlank()) {
+            try {
+                cartService.mergeGuestCart(user.getId(), loginRequest.getGuestCartToken());
+            } catch (BadRequestException e) {
+                // A tampered or malformed guest cart must not block the login itself
+                log.warn("Skipped merging guest cart for user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+
         String authorities = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
@@ -3,8 +3,10 @@ package com.sheshape.service.impl;
 import com.sheshape.dto.BlogPostDto;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.model.BlogPost;
+import com.sheshape.model.SyncTombstone;
 import com.sheshape.model.User;
 import com.sheshape.repository.BlogPostRepository;
+import com.sheshape.repository.SyncTombstoneRepository;
 import com.sheshape.repository.UserRepository;
 import com.sheshape.service.BlogService;
 import jakarta.transaction.Transactional;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,10 +27,13 @@ public class BlogServiceImpl implements BlogService {
 
     private final BlogPostRepository blogPostRepository;
     private final UserRepository userRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
 
-    public BlogServiceImpl(BlogPostRepository blogPostRepository, UserRepository userRepository) {
+    public BlogServiceImpl(BlogPostRepository blogPostRepository, UserRepository userRepository,
+                           SyncTombstoneRepository syncTombstoneRepository) {
         this.blogPostRepository = blogPostRepository;
         this.userRepository = userRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
     }
 
     @Override
@@ -63,6 +69,11 @@ public class BlogServiceImpl implements BlogService {
         return new BlogPostDto(post);
     }
 
+    @Override
+    public Optional<LocalDateTime> getPublishedPostVersion(Long id) {
+        return blogPostRepository.findPublishedUpdatedAtById(id);
+    }
+
     @Override
     public List<BlogPostDto> getPostsByAuthor(Long authorId) {
         return blogPostRepository.findByAuthorId(authorId).stream()
@@ -231,5 +242,6 @@ public class BlogServiceImpl implements BlogService {
         }
 
         blogPostRepository.delete(post);
+        syncTombstoneRepository.save(new SyncTombstone(SyncTombstone.EntityType.BLOG_POST, id));
     }
 }
\ No newline at end of file
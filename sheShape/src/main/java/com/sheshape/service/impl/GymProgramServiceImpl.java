@@ -7,10 +7,12 @@ import com.sheshape.exception.BadRequestException;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.model.GymProgram;
 import com.sheshape.model.GymSession;
+import com.sheshape.model.SyncTombstone;
 import com.sheshape.model.User;
 import com.sheshape.model.UserGymProgram;
 import com.sheshape.repository.GymProgramRepository;
 import com.sheshape.repository.GymSessionRepository;
+import com.sheshape.repository.SyncTombstoneRepository;
 import com.sheshape.repository.UserGymProgramRepository;
 import com.sheshape.repository.UserRepository;
 import com.sheshape.service.GymProgramService;
@@ -22,6 +24,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,16 +33,19 @@ public class GymProgramServiceImpl implements GymProgramService {
     private final GymSessionRepository gymSessionRepository;
     private final UserRepository userRepository;
     private final UserGymProgramRepository userGymProgramRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
 
     public GymProgramServiceImpl(
             GymProgramRepository gymProgramRepository,
             GymSessionRepository gymSessionRepository,
             UserRepository userRepository,
-            UserGymProgramRepository userGymProgramRepository) {
+            UserGymProgramRepository userGymProgramRepository,
+            SyncTombstoneRepository syncTombstoneRepository) {
         this.gymProgramRepository = gymProgramRepository;
         this.gymSessionRepository = gymSessionRepository;
         this.userRepository = userRepository;
         this.userGymProgramRepository = userGymProgramRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
     }
 
     @Override
@@ -64,6 +70,11 @@ public class GymProgramServiceImpl implements GymProgramService {
         return new GymProgramDto(program);
     }
 
+    @Override
+    public Optional<LocalDateTime> getGymProgramVersion(Long id) {
+        return gymProgramRepository.findUpdatedAtById(id);
+    }
+
     @Override
     public List<GymProgramDto> getGymProgramsByTrainer(Long trainerId) {
         return gymProgramRepository.findByTrainerId(trainerId).stream()
@@ -183,6 +194,7 @@ public class GymProgramServiceImpl implements GymProgramService {
         }
 
         gymProgramRepository.delete(program);
+        syncTombstoneRepository.save(new SyncTombstone(SyncTombstone.EntityType.GYM_PROGRAM, id));
     }
 
     @Override
@@ -225,6 +237,8 @@ public class GymProgramServiceImpl implements GymProgramService {
         session.setDurationMinutes(sessionDto.getDurationMinutes());
         session.setSessionOrder(sessionDto.getSessionOrder());
         session.setProgram(program);
+        // Programs embed their sessions, so a session change is a new program version
+        program.setUpdatedAt(LocalDateTime.now());
 
         GymSession savedSession = gymSessionRepository.save(session);
 
@@ -269,6 +283,7 @@ public class GymProgramServiceImpl implements GymProgramService {
             session.setSessionOrder(sessionDto.getSessionOrder());
         }
 
+        session.getProgram().setUpdatedAt(LocalDateTime.now());
         GymSession updatedSession = gymSessionRepository.save(session);
 
         return new GymSessionDto(updatedSession);
@@ -291,6 +306,7 @@ public class GymProgramServiceImpl implements GymProgramService {
             throw new AccessDeniedException("You cannot delete this gym session");
         }
 
+        session.getProgram().setUpdatedAt(LocalDateTime.now());
         gymSessionRepository.delete(session);
     }
 
@@ -5,9 +5,11 @@ import com.sheshape.dto.UserNutritionPlanDto;
 import com.sheshape.exception.BadRequestException;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.model.NutritionPlan;
+import com.sheshape.model.SyncTombstone;
 import com.sheshape.model.User;
 import com.sheshape.model.UserNutritionPlan;
 import com.sheshape.repository.NutritionPlanRepository;
+import com.sheshape.repository.SyncTombstoneRepository;
 import com.sheshape.repository.UserNutritionPlanRepository;
 import com.sheshape.repository.UserRepository;
 import com.sheshape.service.NutritionPlanService;
@@ -19,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,14 +30,17 @@ public class NutritionPlanServiceImpl implements NutritionPlanService {
     private final NutritionPlanRepository nutritionPlanRepository;
     private final UserRepository userRepository;
     private final UserNutritionPlanRepository userNutritionPlanRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
 
     public NutritionPlanServiceImpl(
             NutritionPlanRepository nutritionPlanRepository,
             UserRepository userRepository,
-            UserNutritionPlanRepository userNutritionPlanRepository) {
+            UserNutritionPlanRepository userNutritionPlanRepository,
+            SyncTombstoneRepository syncTombstoneRepository) {
         this.nutritionPlanRepository = nutritionPlanRepository;
         this.userRepository = userRepository;
         this.userNutritionPlanRepository = userNutritionPlanRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
     }
 
     @Override
@@ -59,6 +65,11 @@ public class NutritionPlanServiceImpl implements NutritionPlanService {
         return new NutritionPlanDto(plan);
     }
 
+    @Override
+    public Optional<LocalDateTime> getNutritionPlanVersion(Long id) {
+        return nutritionPlanRepository.findUpdatedAtById(id);
+    }
+
     @Override
     public List<NutritionPlanDto> getNutritionPlansByNutritionist(Long nutritionistId) {
         return nutritionPlanRepository.findByNutritionistId(nutritionistId).stream()
@@ -162,6 +173,7 @@ public class NutritionPlanServiceImpl implements NutritionPlanService {
         }
         
         nutritionPlanRepository.delete(plan);
+        syncTombstoneRepository.save(new SyncTombstone(SyncTombstone.EntityType.NUTRITION_PLAN, id));
     }
 
     @Override
@@ -1,61 +1,79 @@
 package com.sheshape.service.impl;
 
+import com.sheshape.dto.CategoryStatsDto;
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
 import com.sheshape.dto.ProductDto;
-import com.sheshape.model.Product;
+import com.sheshape.dto.ProductInventoryChangeEventDto;
 import com.sheshape.repository.ProductRepository;
 import com.sheshape.service.ProductCategoryService;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
+/**
+ * Category listings and statistics are served from an in-memory summary built with GROUP BY
+ * queries. Product writes mark the categories they touch as dirty; a debounced background refresh
+ * re-aggregates only those categories and swaps in a new summary.
+ */
 @Service
+@Slf4j
 public class ProductCategoryServiceImpl implements ProductCategoryService {
 
     private final ProductRepository productRepository;
 
+    private final Set<String> dirtyCategories = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "category-summary-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Summary summary;
+
+    @Value("${products.categories.refresh-delay-ms:1000}")
+    private long refreshDelayMs;
+
     public ProductCategoryServiceImpl(ProductRepository productRepository) {
         this.productRepository = productRepository;
     }
 
     @Override
     public List<String> getAllCategories() {
-        List<Product> activeProducts = productRepository.findByIsActiveTrue(Pageable.unpaged()).getContent();
-        
-        return activeProducts.stream()
-                .flatMap(product -> product.getCategories().stream())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+        return new ArrayList<>(summary().stats.keySet());
     }
 
     @Override
     public Map<String, Long> getCategoriesWithProductCounts() {
-        List<Product> activeProducts = productRepository.findByIsActiveTrue(Pageable.unpaged()).getContent();
-        
-        Map<String, Long> categoryCount = new HashMap<>();
-        
-        for (Product product : activeProducts) {
-            for (String category : product.getCategories()) {
-                categoryCount.merge(category, 1L, Long::sum);
-            }
-        }
-        
-        // Sort by count descending, then by name ascending
-        return categoryCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
-                        .thenComparing(Map.Entry.comparingByKey()))
+        return summary().byProductCount.stream()
                 .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
+                        CategoryStatsDto::getCategory,
+                        CategoryStatsDto::getProductCount,
                         (e1, e2) -> e1,
                         LinkedHashMap::new
                 ));
     }
 
     @Override
+    @Transactional
     public Page<ProductDto> getProductsByCategory(String category, Pageable pageable) {
         return productRepository.findByCategoryAndIsActiveTrue(category, pageable)
                 .map(ProductDto::new);
@@ -63,94 +81,176 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
 
     @Override
     public Map<String, Object> getCategoryStatistics() {
-        List<Product> activeProducts = productRepository.findByIsActiveTrue(Pageable.unpaged()).getContent();
-        
+        Summary current = summary();
+
         Map<String, Long> categoryCount = new HashMap<>();
         Map<String, Long> categoryStockCount = new HashMap<>();
         Map<String, Double> categoryAvgPrice = new HashMap<>();
-        
-        for (Product product : activeProducts) {
-            for (String category : product.getCategories()) {
-                // Count products in category
-                categoryCount.merge(category, 1L, Long::sum);
-                
-                // Count stock in category
-                categoryStockCount.merge(category, (long) product.getInventoryCount(), Long::sum);
-                
-                // Calculate average price (we'll compute this after collecting all data)
-                categoryAvgPrice.merge(category, product.getPrice().doubleValue(), Double::sum);
-            }
+        for (CategoryStatsDto stats : current.stats.values()) {
+            categoryCount.put(stats.getCategory(), stats.getProductCount());
+            categoryStockCount.put(stats.getCategory(), stats.getTotalStock());
+            categoryAvgPrice.put(stats.getCategory(), stats.getAveragePrice());
         }
-        
-        // Calculate actual average prices
-        Map<String, Double> actualAvgPrices = new HashMap<>();
-        for (String category : categoryCount.keySet()) {
-            actualAvgPrices.put(category, categoryAvgPrice.get(category) / categoryCount.get(category));
-        }
-        
-        // Find most popular category
-        String mostPopularCategory = categoryCount.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
+
+        String mostPopularCategory = current.stats.values().stream()
+                .max(Comparator.comparingLong(CategoryStatsDto::getProductCount))
+                .map(CategoryStatsDto::getCategory)
                 .orElse(null);
-        
-        // Find category with highest total stock
-        String highestStockCategory = categoryStockCount.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
+
+        String highestStockCategory = current.stats.values().stream()
+                .max(Comparator.comparingLong(CategoryStatsDto::getTotalStock))
+                .map(CategoryStatsDto::getCategory)
                 .orElse(null);
-        
+
         Map<String, Object> statistics = new HashMap<>();
         statistics.put("totalCategories", categoryCount.size());
         statistics.put("categoriesWithCounts", categoryCount);
         statistics.put("categoryStockCounts", categoryStockCount);
-        statistics.put("categoryAveragePrices", actualAvgPrices);
+        statistics.put("categoryAveragePrices", categoryAvgPrice);
         statistics.put("mostPopularCategory", mostPopularCategory);
         statistics.put("highestStockCategory", highestStockCategory);
-        statistics.put("totalActiveProducts", activeProducts.size());
-        
+        statistics.put("totalActiveProducts", current.activeProducts);
+
         return statistics;
     }
 
     @Override
     public List<String> searchCategories(String query) {
-        List<String> allCategories = getAllCategories();
-        
-        return allCategories.stream()
-                .filter(category -> category.toLowerCase().contains(query.toLowerCase()))
+        String needle = query.toLowerCase();
+
+        return summary().stats.keySet().stream()
+                .filter(category -> category.toLowerCase().contains(needle))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<String> getPopularCategories(int limit) {
-        Map<String, Long> categoriesWithCounts = getCategoriesWithProductCounts();
-        
-        return categoriesWithCounts.entrySet().stream()
+        return summary().byProductCount.stream()
                 .limit(limit)
-                .map(Map.Entry::getKey)
+                .map(CategoryStatsDto::getCategory)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<String> getCategoriesWithStock() {
-        List<Product> productsInStock = productRepository.findByIsActiveTrueAndInventoryCountGreaterThan(0);
-        
-        return productsInStock.stream()
-                .flatMap(product -> product.getCategories().stream())
-                .distinct()
-                .sorted()
+        return summary().stats.values().stream()
+                .filter(stats -> stats.getInStockCount() > 0)
+                .map(CategoryStatsDto::getCategory)
                 .collect(Collectors.toList());
     }
-    // Add this method to your ProductServiceImpl class
+
+    @Override
+    public boolean hasCategory(String category) {
+        return summary().stats.containsKey(category);
+    }
 
     @Override
     public List<String> getProductCategories() {
-        List<Product> activeProducts = productRepository.findByIsActiveTrue(Pageable.unpaged()).getContent();
+        return getAllCategories();
+    }
 
-        return activeProducts.stream()
-                .flatMap(product -> product.getCategories().stream())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
+    private Summary summary() {
+        Summary current = summary;
+        if (current == null) {
+            load();
+            current = summary;
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        summary = new Summary(productRepository.summarizeCategories(), productRepository.countByIsActiveTrue());
+        log.info("Loaded category summary: {} categories in {} ms",
+                summary.stats.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        dirtyCategories.addAll(event.getCategories());
+        dirtyCategories.addAll(event.getPreviousCategories());
+        scheduleRefresh();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        // An import can touch every category; a full reload is cheaper than tracking them
+        load();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangeEventDto event) {
+        // Stock events don't carry categories; resolve them in bulk when the refresh runs
+        dirtyProducts.add(event.getProductId());
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        // Coalesce bursts of writes (a checkout touches several products) into one refresh
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::refreshInBackground, refreshDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshInBackground() {
+        refreshScheduled.set(false);
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh category summary, reloading it on next read", e);
+            summary = null;
+        }
+    }
+
+    private synchronized void refresh() {
+        Set<String> categories = drain(dirtyCategories);
+        Set<Long> productIds = drain(dirtyProducts);
+        if (!productIds.isEmpty()) {
+            categories.addAll(productRepository.findCategoriesByProductIds(productIds));
+        }
+
+        Summary current = summary;
+        if (current == null || categories.isEmpty()) {
+            return;
+        }
+
+        Map<String, CategoryStatsDto> stats = new HashMap<>(current.stats);
+        stats.keySet().removeAll(categories);
+        for (CategoryStatsDto row : productRepository.summarizeCategories(categories)) {
+            stats.put(row.getCategory(), row);
+        }
+        summary = new Summary(stats.values(), productRepository.countByIsActiveTrue());
+    }
+
+    private static <T> Set<T> drain(Set<T> source) {
+        Set<T> drained = new HashSet<>();
+        for (Iterator<T> iterator = source.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Summary {
+        // Sorted by name
+        private final SortedMap<String, CategoryStatsDto> stats = new TreeMap<>();
+        // Sorted by product count descending, then by name ascending
+        private final List<CategoryStatsDto> byProductCount;
+        private final long activeProducts;
+
+        private Summary(Collection<CategoryStatsDto> rows, long activeProducts) {
+            rows.forEach(row -> stats.put(row.getCategory(), row));
+            this.byProductCount = stats.values().stream()
+                    .sorted(Comparator.comparingLong(CategoryStatsDto::getProductCount).reversed()
+                            .thenComparing(CategoryStatsDto::getCategory))
+                    .collect(Collectors.toList());
+            this.activeProducts = activeProducts;
+        }
     }
-}
\ No newline at end of file
+}
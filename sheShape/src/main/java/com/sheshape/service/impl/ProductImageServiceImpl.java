@@ -1,6 +1,7 @@
 // com.sheshape.service.impl.ProductImageServiceImpl.java
 package com.sheshape.service.impl;
 
+import com.sheshape.dto.ProductImageChangeEventDto;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.model.Product;
 import com.sheshape.model.ProductImage;
@@ -8,21 +9,29 @@ import com.sheshape.repository.ProductImageRepository;
 import com.sheshape.repository.ProductRepository;
 import com.sheshape.service.ProductImageService;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductImageServiceImpl implements ProductImageService {
 
     private final ProductImageRepository productImageRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public ProductImageServiceImpl(
             ProductImageRepository productImageRepository,
-            ProductRepository productRepository) {
+            ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.productImageRepository = productImageRepository;
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -49,7 +58,7 @@ public class ProductImageServiceImpl implements ProductImageService {
         
         // If this is set as main, reset all other main images
         if (isMain) {
-            resetMainImages(productId);
+            productImageRepository.clearMainImage(productId);
         }
         
         // Determine position (add at the end)
@@ -62,25 +71,29 @@ public class ProductImageServiceImpl implements ProductImageService {
         image.setMain(isMain);
         image.setPosition(position);
         
-        return productImageRepository.save(image);
+        ProductImage savedImage = productImageRepository.save(image);
+        imagesChanged(productId);
+        return savedImage;
     }
 
     @Override
     @Transactional
     public ProductImage updateProductImage(Long imageId, boolean isMain, Integer position) {
         ProductImage image = getProductImageById(imageId);
+        Long productId = image.getProduct().getId();
         
-        // If this is set as main, reset all other main images
-        if (isMain && !image.isMain()) {
-            resetMainImages(image.getProduct().getId());
-        }
-        
-        image.setMain(isMain);
         if (position != null) {
             image.setPosition(position);
         }
         
-        return productImageRepository.save(image);
+        if (isMain && !image.isMain()) {
+            // Flushes the position change, then flips the main flag for the whole product in one statement
+            productImageRepository.switchMainImage(productId, imageId);
+        }
+        image.setMain(isMain);
+        
+        imagesChanged(productId);
+        return image;
     }
 
     @Override
@@ -88,87 +101,91 @@ public class ProductImageServiceImpl implements ProductImageService {
     public void deleteProductImage(Long imageId) {
         ProductImage image = getProductImageById(imageId);
         
-        // If this was the main image, pick another one as main (if any exists)
+        // If this was the main image, promote the next one by position (if any exists)
         if (image.isMain()) {
-            List<ProductImage> images = productImageRepository.findByProductIdOrderByPositionAsc(
-                    image.getProduct().getId());
-            
-            // Find another image to set as main (first one that's not the current image)
-            images.stream()
-                    .filter(img -> !img.getId().equals(imageId))
-                    .findFirst()
-                    .ifPresent(newMain -> {
-                        newMain.setMain(true);
-                        productImageRepository.save(newMain);
-                    });
+            productImageRepository.findFirstByProductIdAndIdNotOrderByPositionAsc(image.getProduct().getId(), imageId)
+                    .ifPresent(newMain -> newMain.setMain(true));
         }
         
-        productImageRepository.deleteById(imageId);
+        productImageRepository.delete(image);
+        imagesChanged(image.getProduct().getId());
     }
 
     @Override
     @Transactional
     public ProductImage setMainImage(Long imageId) {
         ProductImage image = getProductImageById(imageId);
+        Long productId = image.getProduct().getId();
         
-        // Reset all main images for this product
-        resetMainImages(image.getProduct().getId());
+        // One statement clears the old main image and sets this one
+        productImageRepository.switchMainImage(productId, imageId);
         
-        // Set this image as main
+        // The update detached the image; mirror the new flag on the copy we return
         image.setMain(true);
-        return productImageRepository.save(image);
+        imagesChanged(productId);
+        return image;
     }
 
     @Override
     @Transactional
     public void updateImagePositions(List<ProductImage> updatedImages) {
+        Map<Long, ProductImage> existingImages = productImageRepository.findAllById(
+                        updatedImages.stream().map(ProductImage::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ProductImage::getId, Function.identity()));
+        
+        // Positions are applied to managed entities and flushed as one JDBC batch; main-image
+        // changes are resolved per product afterwards
+        Map<Long, Long> newMainByProduct = new LinkedHashMap<>();
+        Map<Long, Long> unsetMainByProduct = new LinkedHashMap<>();
         for (ProductImage image : updatedImages) {
-            ProductImage existingImage = productImageRepository.findById(image.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product image not found with id: " + image.getId()));
+            ProductImage existingImage = existingImages.get(image.getId());
+            if (existingImage == null) {
+                throw new ResourceNotFoundException("Product image not found with id: " + image.getId());
+            }
             
-            existingImage.setPosition(image.getPosition());
+            Long productId = existingImage.getProduct().getId();
+            newMainByProduct.putIfAbsent(productId, null);
+            if (image.getPosition() != null) {
+                existingImage.setPosition(image.getPosition());
+            }
             if (image.isMain() && !existingImage.isMain()) {
-                // Reset main images if this one is becoming main
-                resetMainImages(existingImage.getProduct().getId());
-                existingImage.setMain(true);
+                newMainByProduct.put(productId, existingImage.getId());
             } else if (!image.isMain() && existingImage.isMain()) {
-                // If we're unsetting the main, ensure another image becomes main
-                List<ProductImage> otherImages = productImageRepository.findByProductIdOrderByPositionAsc(
-                        existingImage.getProduct().getId());
-                ProductImage newMain = otherImages.stream()
-                        .filter(img -> !img.getId().equals(existingImage.getId()))
-                        .findFirst()
+                unsetMainByProduct.put(productId, existingImage.getId());
+            }
+        }
+        
+        for (Map.Entry<Long, Long> entry : newMainByProduct.entrySet()) {
+            Long productId = entry.getKey();
+            Long newMainId = entry.getValue();
+            Long oldMainId = unsetMainByProduct.get(productId);
+            if (newMainId == null && oldMainId != null) {
+                // Unsetting the main image hands it to the first other image by (new) position;
+                // if there is none, the image stays main
+                newMainId = productImageRepository.findFirstByProductIdAndIdNotOrderByPositionAsc(productId, oldMainId)
+                        .map(ProductImage::getId)
                         .orElse(null);
-                
-                if (newMain != null) {
-                    newMain.setMain(true);
-                    productImageRepository.save(newMain);
-                } else {
-                    // If no other images, keep this one as main
-                    continue;
-                }
             }
-            
-            productImageRepository.save(existingImage);
+            if (newMainId != null) {
+                productImageRepository.switchMainImage(productId, newMainId);
+            }
         }
+        newMainByProduct.keySet().forEach(this::imagesChanged);
     }
 
     @Override
     @Transactional
     public void deleteAllProductImages(Long productId) {
         productImageRepository.deleteByProductId(productId);
+        imagesChanged(productId);
     }
     
     /**
-     * Helper method to reset all main images for a product
+     * Bump the product's version and tell caches once the transaction commits
      */
-    private void resetMainImages(Long productId) {
-        List<ProductImage> images = productImageRepository.findByProductIdOrderByPositionAsc(productId);
-        for (ProductImage img : images) {
-            if (img.isMain()) {
-                img.setMain(false);
-                productImageRepository.save(img);
-            }
-        }
+    private void imagesChanged(Long productId) {
+        productRepository.touch(productId);
+        eventPublisher.publishEvent(new ProductImageChangeEventDto(productId));
     }
 }
\ No newline at end of file
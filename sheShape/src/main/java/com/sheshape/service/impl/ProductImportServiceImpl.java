@@ -0,0 +1,346 @@
+package com.sheshape.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductImportResultDto;
+import com.sheshape.dto.ProductImportRowDto;
+import com.sheshape.model.Product;
+import com.sheshape.model.order.CartItem;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.repository.order.CartRepository;
+import com.sheshape.service.ProductImportService;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the upload one row at a time and upserts it in batches, each batch in its own
+ * transaction with JDBC-batched inserts. A batch that fails in the database is retried row by row
+ * so one bad row is reported instead of sinking its neighbours.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String CATEGORY_SEPARATOR = "\\|";
+
+    private final ProductRepository productRepository;
+    private final CartRepository cartRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductImportService self;
+
+    @Value("${products.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${products.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ProductImportServiceImpl(ProductRepository productRepository,
+                                    CartRepository cartRepository,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Lazy ProductImportService self) {
+        this.productRepository = productRepository;
+        this.cartRepository = cartRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.self = self;
+    }
+
+    @Override
+    public ProductImportResultDto importProducts(InputStream input, Format format) {
+        long started = System.currentTimeMillis();
+        ProductImportResultDto result = new ProductImportResultDto();
+
+        List<ProductImportRowDto> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowReader rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+
+            ProductImportRowDto row;
+            while ((row = rows.next(result)) != null) {
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            }
+        } catch (IOException e) {
+            // Rows read so far are still imported; report where reading stopped rather than failing the request
+            result.getErrors().add(new ProductImportResultDto.RowError(0, null, "Import stopped: " + e.getMessage()));
+        }
+        flush(batch, result);
+
+        if (result.getCreated() + result.getUpdated() > 0) {
+            eventPublisher.publishEvent(new ProductBulkChangeEventDto(result.getCreated(), result.getUpdated()));
+        }
+
+        result.setDurationMs(System.currentTimeMillis() - started);
+        log.info("Imported products: {} rows, {} created, {} updated, {} failed in {} ms",
+                result.getRows(), result.getCreated(), result.getUpdated(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    private void flush(List<ProductImportRowDto> batch, ProductImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            result.merge(self.importBatch(batch), maxReportedErrors);
+        } catch (RuntimeException batchFailure) {
+            log.debug("Import batch failed, retrying row by row", batchFailure);
+            for (ProductImportRowDto row : batch) {
+                try {
+                    result.merge(self.importBatch(List.of(row)), maxReportedErrors);
+                } catch (RuntimeException rowFailure) {
+                    ProductImportResultDto rejected = new ProductImportResultDto();
+                    rejected.reject(row.getLine(), row.getSku(),
+                            NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                    result.merge(rejected, maxReportedErrors);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public ProductImportResultDto importBatch(List<ProductImportRowDto> rows) {
+        ProductImportResultDto result = new ProductImportResultDto();
+
+        Set<String> skus = rows.stream()
+                .map(ProductImportRowDto::getSku)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Product> bySku = skus.isEmpty() ? new HashMap<>() : productRepository.findBySkuIn(skus).stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+
+        List<Product> newProducts = new ArrayList<>();
+        List<Long> repricedIds = new ArrayList<>();
+        for (ProductImportRowDto row : rows) {
+            Product product = row.getSku() != null ? bySku.get(row.getSku()) : null;
+            String problem = validate(row, product == null);
+            if (problem != null) {
+                result.reject(row.getLine(), row.getSku(), problem);
+                continue;
+            }
+
+            if (product == null) {
+                product = new Product();
+                product.setSku(row.getSku());
+                product.setInventoryCount(0);
+                newProducts.add(product);
+                bySku.put(row.getSku(), product);
+                result.setCreated(result.getCreated() + 1);
+                apply(row, product);
+            } else {
+                result.setUpdated(result.getUpdated() + 1);
+                BigDecimal oldUnitPrice = CartItem.unitPriceOf(product);
+                apply(row, product);
+                if (oldUnitPrice.compareTo(CartItem.unitPriceOf(product)) != 0) {
+                    repricedIds.add(product.getId());
+                }
+            }
+            result.setRows(result.getRows() + 1);
+        }
+
+        // Existing products are managed and flush on commit; ids for new ones come from the pooled generator
+        productRepository.saveAll(newProducts);
+        // Carts store a denormalized subtotal; let those holding repriced products recompute it
+        if (!repricedIds.isEmpty()) {
+            cartRepository.markTotalsStaleForProducts(repricedIds);
+        }
+        return result;
+    }
+
+    private static String validate(ProductImportRowDto row, boolean creating) {
+        // Without a SKU a re-import couldn't find the product again and would create duplicates
+        if (row.getSku() == null) {
+            return "SKU is required";
+        }
+        if (creating && (row.getName() == null || row.getName().isBlank())) {
+            return "Name is required for new products";
+        }
+        if (creating && row.getPrice() == null) {
+            return "Price is required for new products";
+        }
+        if (row.getSku().length() > 64) {
+            return "SKU must be at most 64 characters";
+        }
+        if (row.getName() != null && row.getName().length() > 255) {
+            return "Name must be at most 255 characters";
+        }
+        if (row.getPrice() != null && row.getPrice().signum() < 0) {
+            return "Price cannot be negative";
+        }
+        if (row.getDiscountPrice() != null && row.getDiscountPrice().signum() < 0) {
+            return "Discount price cannot be negative";
+        }
+        if (row.getInventoryCount() != null && row.getInventoryCount() < 0) {
+            return "Inventory count cannot be negative";
+        }
+        return null;
+    }
+
+    private static void apply(ProductImportRowDto row, Product product) {
+        if (row.getName() != null) {
+            product.setName(row.getName().trim());
+        }
+        if (row.getDescription() != null) {
+            product.setDescription(row.getDescription());
+        }
+        if (row.getPrice() != null) {
+            product.setPrice(row.getPrice());
+        }
+        if (row.getDiscountPrice() != null) {
+            product.setDiscountPrice(row.getDiscountPrice());
+        }
+        if (row.getInventoryCount() != null) {
+            product.setInventoryCount(row.getInventoryCount());
+        }
+        if (row.getActive() != null) {
+            product.setIsActive(row.getActive());
+        }
+        // Only rewrite the collection when it changed, so re-imports don't churn product_categories
+        if (row.getCategories() != null && !row.getCategories().equals(product.getCategories())) {
+            product.setCategories(new HashSet<>(row.getCategories()));
+        }
+    }
+
+    private interface RowReader {
+        // Next parsed row, or null at end of input; rows that can't be parsed go straight into the result
+        ProductImportRowDto next(ProductImportResultDto result) throws IOException;
+    }
+
+    private RowReader ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return result -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    ProductImportRowDto row = objectMapper.readValue(line, ProductImportRowDto.class);
+                    row.setLine(lineNumber[0]);
+                    row.setSku(blankToNull(row.getSku()));
+                    return row;
+                } catch (JsonProcessingException e) {
+                    reject(result, lineNumber[0], null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RowReader csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return result -> null;
+        }
+
+        // Header names are matched loosely: "inventory_count", "Inventory Count" and "inventoryCount" all work
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT), i);
+        }
+
+        return result -> {
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                CsvRow row = new CsvRow(fields, columns);
+                try {
+                    return new ProductImportRowDto(csv.recordLine(), row.text("sku"), row.text("name"),
+                            row.text("description"), row.decimal("price"), row.decimal("discountprice"),
+                            row.integer("inventorycount"), row.categories("categories"), row.bool("active"));
+                } catch (IllegalArgumentException e) {
+                    reject(result, csv.recordLine(), row.text("sku"), e.getMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private void reject(ProductImportResultDto result, long line, String sku, String message) {
+        ProductImportResultDto rejected = new ProductImportResultDto();
+        rejected.reject(line, sku, message);
+        result.merge(rejected, maxReportedErrors);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static final class CsvRow {
+        private final List<String> fields;
+        private final Map<String, Integer> columns;
+
+        private CsvRow(List<String> fields, Map<String, Integer> columns) {
+            this.fields = fields;
+            this.columns = columns;
+        }
+
+        private String text(String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= fields.size() ? null : blankToNull(fields.get(index));
+        }
+
+        private BigDecimal decimal(String column) {
+            String value = text(column);
+            try {
+                return value == null ? null : new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+            }
+        }
+
+        private Integer integer(String column) {
+            String value = text(column);
+            try {
+                return value == null ? null : Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+            }
+        }
+
+        private Boolean bool(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "1" -> true;
+                case "false", "no", "0" -> false;
+                default -> throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+            };
+        }
+
+        private Set<String> categories(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            return Arrays.stream(value.split(CATEGORY_SEPARATOR))
+                    .map(String::trim)
+                    .filter(category -> !category.isEmpty())
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+}
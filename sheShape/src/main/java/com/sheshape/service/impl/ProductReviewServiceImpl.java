@@ -0,0 +1,176 @@
+package com.sheshape.service.impl;
+
+import com.sheshape.dto.KeysetPageDto;
+import com.sheshape.dto.ProductRatingChangeEventDto;
+import com.sheshape.dto.ProductRatingDto;
+import com.sheshape.dto.ProductReviewDto;
+import com.sheshape.exception.BadRequestException;
+import com.sheshape.exception.ResourceNotFoundException;
+import com.sheshape.model.Product;
+import com.sheshape.model.ProductReview;
+import com.sheshape.model.order.Order;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.repository.ProductReviewRepository;
+import com.sheshape.repository.UserRepository;
+import com.sheshape.repository.order.ArchivedOrderRepository;
+import com.sheshape.repository.order.OrderItemRepository;
+import com.sheshape.service.ProductReviewService;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reviews keep rating_sum and rating_count on the product row up to date with one set-based update
+ * in the same transaction, so listings show averages without aggregating reviews. The product is
+ * only re-versioned (and its cached DTO and listing snapshots dropped) when the change is visible:
+ * a different rounded average or a different displayed review count.
+ */
+@Service
+public class ProductReviewServiceImpl implements ProductReviewService {
+
+    // Orders that count as a purchase; pending orders may still be cancelled unpaid
+    private static final Set<Order.OrderStatus> PURCHASED_STATUSES = EnumSet.of(
+            Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING,
+            Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+
+    private final ProductReviewRepository productReviewRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductReviewServiceImpl(ProductReviewRepository productReviewRepository,
+                                    ProductRepository productRepository, UserRepository userRepository,
+                                    OrderItemRepository orderItemRepository,
+                                    ArchivedOrderRepository archivedOrderRepository,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.productReviewRepository = productReviewRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public KeysetPageDto<ProductReviewDto> getReviews(Long productId, String after, int size) {
+        long beforeId = parseCursor(after);
+
+        // One extra row tells whether another page follows
+        List<ProductReviewDto> reviews = productReviewRepository.findPageBefore(productId, beforeId, size + 1);
+        boolean hasMore = reviews.size() > size;
+        if (hasMore) {
+            reviews = reviews.subList(0, size);
+        }
+
+        String nextCursor = hasMore ? String.valueOf(reviews.get(reviews.size() - 1).getId()) : null;
+        return new KeysetPageDto<>(reviews, nextCursor, hasMore);
+    }
+
+    private static long parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + after);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ProductReviewDto createReview(Long productId, Long userId, ProductReviewDto reviewDto) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+        if (!product.getIsActive()) {
+            throw new BadRequestException("Product is not available for review");
+        }
+        if (productReviewRepository.existsByProductIdAndUserId(productId, userId)) {
+            throw new BadRequestException("You have already reviewed this product");
+        }
+
+        ProductReview review = new ProductReview();
+        review.setProduct(product);
+        review.setUser(userRepository.getReferenceById(userId));
+        review.setRating(reviewDto.getRating());
+        review.setTitle(reviewDto.getTitle());
+        review.setComment(reviewDto.getComment());
+        review.setVerifiedPurchase(hasPurchased(userId, productId));
+        ProductReview savedReview = productReviewRepository.save(review);
+
+        adjustRating(productId, reviewDto.getRating(), 1);
+        return new ProductReviewDto(savedReview);
+    }
+
+    @Override
+    @Transactional
+    public ProductReviewDto updateReview(Long productId, Long reviewId, Long userId, ProductReviewDto reviewDto) {
+        ProductReview review = findReview(productId, reviewId);
+        if (!review.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("You can only edit your own reviews");
+        }
+
+        int ratingDelta = reviewDto.getRating() - review.getRating();
+        review.setRating(reviewDto.getRating());
+        review.setTitle(reviewDto.getTitle());
+        review.setComment(reviewDto.getComment());
+        // An order placed or delivered since the review was written verifies it now
+        review.setVerifiedPurchase(review.getVerifiedPurchase() || hasPurchased(userId, productId));
+        ProductReview savedReview = productReviewRepository.save(review);
+
+        if (ratingDelta != 0) {
+            adjustRating(productId, ratingDelta, 0);
+        }
+        return new ProductReviewDto(savedReview);
+    }
+
+    @Override
+    @Transactional
+    public void deleteReview(Long productId, Long reviewId, Long userId, boolean admin) {
+        ProductReview review = findReview(productId, reviewId);
+        if (!admin && !review.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("You can only delete your own reviews");
+        }
+
+        productReviewRepository.delete(review);
+        adjustRating(productId, -review.getRating(), -1);
+    }
+
+    private ProductReview findReview(Long productId, Long reviewId) {
+        return productReviewRepository.findById(reviewId)
+                .filter(review -> review.getProduct().getId().equals(productId))
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
+    }
+
+    private boolean hasPurchased(Long userId, Long productId) {
+        return orderItemRepository.existsPurchase(userId, productId, PURCHASED_STATUSES)
+                || archivedOrderRepository.existsPurchase(userId, productId, PURCHASED_STATUSES);
+    }
+
+    private void adjustRating(Long productId, int sumDelta, int countDelta) {
+        // The update locks the row until commit, so the totals read back are this transaction's
+        productRepository.adjustRating(productId, sumDelta, countDelta);
+        ProductRatingDto after = productRepository.findRatingById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        long sumBefore = after.getRatingSum() - sumDelta;
+        int countBefore = after.getRatingCount() - countDelta;
+        if (displayedAverage(sumBefore, countBefore) != displayedAverage(after.getRatingSum(), after.getRatingCount())
+                || Product.displayedRatingCount(countBefore) != Product.displayedRatingCount(after.getRatingCount())) {
+            productRepository.touch(productId);
+            eventPublisher.publishEvent(new ProductRatingChangeEventDto(productId));
+        }
+    }
+
+    // Average in tenths of a star, as Product.getAverageRating rounds it; -1 without reviews
+    private static long displayedAverage(long ratingSum, int ratingCount) {
+        return ratingCount == 0 ? -1 : Math.round(ratingSum * 10.0 / ratingCount);
+    }
+}
@@ -1,21 +1,43 @@
 package com.sheshape.service.impl;
 
+import com.sheshape.dto.KeysetPageDto;
+import com.sheshape.dto.ProductCardDto;
+import com.sheshape.dto.ProductChangeEventDto;
 import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.ProductFilterResultDto;
 import com.sheshape.dto.ProductImageDto;
+import com.sheshape.dto.ProductInventoryChangeEventDto;
 import com.sheshape.exception.BadRequestException;
 import com.sheshape.exception.ResourceNotFoundException;
 import com.sheshape.model.Product;
 import com.sheshape.model.ProductImage;
+import com.sheshape.model.SyncTombstone;
+import com.sheshape.model.order.CartItem;
 import com.sheshape.repository.ProductImageRepository;
 import com.sheshape.repository.ProductRepository;
+import com.sheshape.repository.SyncTombstoneRepository;
+import com.sheshape.repository.order.CartRepository;
 import com.sheshape.service.ProductService;
+import com.sheshape.service.cache.ProductCacheService;
+import com.sheshape.service.search.ProductFacetService;
+import com.sheshape.service.search.ProductSearchService;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,19 +45,44 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
-
-    public ProductServiceImpl(ProductRepository productRepository,ProductImageRepository productImageRepository) {
+    private final CartRepository cartRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final ProductCacheService productCacheService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProductServiceImpl(ProductRepository productRepository, ProductImageRepository productImageRepository,
+                              CartRepository cartRepository, ProductSearchService productSearchService,
+                              ProductFacetService productFacetService, ProductCacheService productCacheService,
+                              SyncTombstoneRepository syncTombstoneRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.productImageRepository = productImageRepository;
+        this.cartRepository = cartRepository;
+        this.productSearchService = productSearchService;
+        this.productFacetService = productFacetService;
+        this.productCacheService = productCacheService;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public Page<ProductDto> getAllActiveProducts(Pageable pageable) {
         return productRepository.findByIsActiveTrue(pageable)
                 .map(ProductDto::new);
     }
 
     @Override
+    @Transactional
+    public Page<ProductCardDto> getActiveProductCards(Pageable pageable) {
+        return productRepository.findByIsActiveTrue(pageable)
+                .map(ProductCardDto::new);
+    }
+
+    @Override
+    @Transactional
     public Page<ProductDto> getAllProducts(Pageable pageable) {
         return productRepository.findAll(pageable)
                 .map(ProductDto::new);
@@ -43,29 +90,112 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productCacheService.get(id, this::loadProduct);
+    }
+
+    @Override
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        return productCacheService.getAll(ids, this::loadProducts);
+    }
+
+    private List<ProductDto> loadProducts(Collection<Long> ids) {
+        return productRepository.findWithImagesAndCategoriesByIdIn(ids).stream()
+                .map(ProductDto::new)
+                .collect(Collectors.toList());
+    }
+
+    private ProductDto loadProduct(Long id) {
+        Product product = productRepository.findWithImagesAndCategoriesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         
         return new ProductDto(product);
     }
 
     @Override
+    @Transactional
     public Page<ProductDto> getProductsByCategory(String category, Pageable pageable) {
         return productRepository.findByCategoryAndIsActiveTrue(category, pageable)
                 .map(ProductDto::new);
     }
 
     @Override
+    @Transactional
+    public Page<ProductCardDto> getProductCardsByCategory(String category, Pageable pageable) {
+        return productRepository.findByCategoryAndIsActiveTrue(category, pageable)
+                .map(ProductCardDto::new);
+    }
+
+    @Override
+    @Transactional
     public Page<ProductDto> searchProducts(String keyword, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCaseAndIsActiveTrue(keyword, pageable)
-                .map(ProductDto::new);
+        // Matching and ranking happen in memory; only the requested page is loaded
+        Page<Long> ids = productSearchService.search(keyword, pageable);
+        return new PageImpl<>(loadInOrder(ids.getContent(), ProductDto::new), pageable, ids.getTotalElements());
+    }
+
+    @Override
+    @Transactional
+    public Page<ProductCardDto> searchProductCards(String keyword, Pageable pageable) {
+        Page<Long> ids = productSearchService.search(keyword, pageable);
+        return new PageImpl<>(loadInOrder(ids.getContent(), ProductCardDto::new), pageable, ids.getTotalElements());
+    }
+
+    @Override
+    @Transactional
+    public ProductFilterResultDto filterProducts(Set<String> categories, Set<String> priceBuckets, Boolean inStock,
+                                                 Pageable pageable) {
+        // Bitmap filtering and facet counting happen in memory; only the requested page is loaded
+        ProductFacetService.FacetResult result =
+                productFacetService.filter(categories, priceBuckets, inStock, true, pageable);
+
+        Page<ProductDto> page = new PageImpl<>(loadInOrder(result.getProductIds(), ProductDto::new), pageable,
+                result.getTotalElements());
+        return new ProductFilterResultDto(page, result.getCategoryCounts(), result.getPriceCounts(),
+                result.getStockCounts());
+    }
+
+    private <T> List<T> loadInOrder(List<Long> ids, Function<Product, T> mapper) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(mapper)
+                .collect(Collectors.toList());
     }
 
     @Override
-    public List<ProductDto> getProductsInStock() {
-        return productRepository.findByIsActiveTrueAndInventoryCountGreaterThan(0).stream()
+    @Transactional
+    public KeysetPageDto<ProductDto> getProductsInStock(String after, int size) {
+        long afterId = parseCursor(after);
+
+        // One extra row tells whether another page follows
+        List<Product> products = productRepository.findInStockAfter(afterId, size + 1);
+        boolean hasMore = products.size() > size;
+        if (hasMore) {
+            products = products.subList(0, size);
+        }
+
+        List<ProductDto> content = products.stream()
                 .map(ProductDto::new)
                 .collect(Collectors.toList());
+        String nextCursor = hasMore ? String.valueOf(products.get(products.size() - 1).getId()) : null;
+        return new KeysetPageDto<>(content, nextCursor, hasMore);
+    }
+
+    private static long parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor: " + after);
+        }
     }
 
     @Override
@@ -73,6 +203,7 @@ public class ProductServiceImpl implements ProductService {
     public ProductDto createProduct(ProductDto productDto) {
         // Create the product with basic fields
         Product product = new Product();
+        product.setSku(productDto.getSku());
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
         product.setPrice(productDto.getPrice());
@@ -116,6 +247,7 @@ public class ProductServiceImpl implements ProductService {
             savedProduct = productRepository.save(savedProduct);
         }
 
+        eventPublisher.publishEvent(new ProductChangeEventDto(savedProduct));
         return convertToDto(savedProduct);
     }
 
@@ -126,6 +258,10 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         // Update basic fields
+        if (productDto.getSku() != null) {
+            product.setSku(productDto.getSku());
+        }
+
         if (productDto.getName() != null) {
             product.setName(productDto.getName());
         }
@@ -134,6 +270,8 @@ public class ProductServiceImpl implements ProductService {
             product.setDescription(productDto.getDescription());
         }
 
+        BigDecimal oldUnitPrice = CartItem.unitPriceOf(product);
+
         if (productDto.getPrice() != null) {
             product.setPrice(productDto.getPrice());
         }
@@ -142,6 +280,12 @@ public class ProductServiceImpl implements ProductService {
             product.setDiscountPrice(productDto.getDiscountPrice());
         }
 
+        // Carts store a denormalized subtotal; let them recompute it on their next read
+        BigDecimal newUnitPrice = CartItem.unitPriceOf(product);
+        if (oldUnitPrice.compareTo(newUnitPrice) != 0) {
+            cartRepository.markTotalsStaleForProduct(id);
+        }
+
         if (productDto.getInventoryCount() != null) {
             product.setInventoryCount(productDto.getInventoryCount());
         }
@@ -151,12 +295,22 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // Update categories
+        Set<String> previousCategories = new HashSet<>(product.getCategories());
         if (productDto.getCategories() != null) {
             product.setCategories(productDto.getCategories());
         }
 
         // Handle image updates if provided
         if (productDto.getImages() != null) {
+            // Existing images referenced by the request, in one query
+            Map<Long, ProductImage> existingImages = productImageRepository.findAllById(
+                            productDto.getImages().stream()
+                                    .map(ProductImageDto::getId)
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(ProductImage::getId, Function.identity()));
+
             // First clear existing images if we're setting new ones
             product.getImages().clear();
 
@@ -170,12 +324,9 @@ public class ProductServiceImpl implements ProductService {
             for (int i = 0; i < productDto.getImages().size(); i++) {
                 ProductImageDto imageDto = productDto.getImages().get(i);
 
-                ProductImage image = new ProductImage();
-                if (imageDto.getId() != null) {
-                    // This is an existing image
-                    image = productImageRepository.findById(imageDto.getId())
-                            .orElse(new ProductImage());
-                }
+                ProductImage image = imageDto.getId() != null
+                        ? existingImages.getOrDefault(imageDto.getId(), new ProductImage())
+                        : new ProductImage();
 
                 image.setProduct(product);
                 image.setImageUrl(imageDto.getImageUrl());
@@ -187,7 +338,12 @@ public class ProductServiceImpl implements ProductService {
             }
         }
 
+        // Image-only edits leave the row clean; bump the version so caches and clients see the change
+        product.setUpdatedAt(LocalDateTime.now());
         Product updatedProduct = productRepository.save(product);
+        ProductChangeEventDto event = new ProductChangeEventDto(updatedProduct);
+        event.setPreviousCategories(previousCategories);
+        eventPublisher.publishEvent(event);
         return convertToDto(updatedProduct);
     }
 
@@ -199,6 +355,7 @@ public class ProductServiceImpl implements ProductService {
         
         product.setIsActive(true);
         Product activatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangeEventDto(activatedProduct));
         
         return new ProductDto(activatedProduct);
     }
@@ -211,6 +368,7 @@ public class ProductServiceImpl implements ProductService {
         
         product.setIsActive(false);
         Product deactivatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangeEventDto(deactivatedProduct));
         
         return new ProductDto(deactivatedProduct);
     }
@@ -222,32 +380,45 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         
         productRepository.delete(product);
+        syncTombstoneRepository.save(new SyncTombstone(SyncTombstone.EntityType.PRODUCT, id));
+        eventPublisher.publishEvent(ProductChangeEventDto.deleted(product));
     }
 
     @Override
     @Transactional
     public boolean updateInventory(Long id, int quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        
-        if (product.getInventoryCount() < quantity) {
-            return false; // Not enough inventory
+        if (productRepository.decrementInventory(id, quantity) > 0) {
+            eventPublisher.publishEvent(new ProductInventoryChangeEventDto(id, -quantity));
+            return true;
         }
-        
-        product.setInventoryCount(product.getInventoryCount() - quantity);
-        productRepository.save(product);
-        
-        return true;
+
+        if (!productRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+
+        return false; // Not enough inventory
+    }
+
+    @Override
+    @Transactional
+    public void restoreInventory(Long id, int quantity) {
+        if (productRepository.incrementInventory(id, quantity) == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        eventPublisher.publishEvent(new ProductInventoryChangeEventDto(id, quantity));
     }
     private ProductDto convertToDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
+        dto.setSku(product.getSku());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
         dto.setPrice(product.getPrice());
         dto.setDiscountPrice(product.getDiscountPrice());
         dto.setInventoryCount(product.getInventoryCount());
         dto.setIsActive(product.getIsActive());
+        dto.setAverageRating(product.getAverageRating());
+        dto.setRatingCount(product.getDisplayedRatingCount());
         dto.setCreatedAt(product.getCreatedAt());
         dto.setUpdatedAt(product.getUpdatedAt());
 
@@ -0,0 +1,53 @@
+package com.sheshape.service.impl;
+
+import com.sheshape.model.SchedulerLock;
+import com.sheshape.repository.SchedulerLockRepository;
+import com.sheshape.service.SchedulerLockService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Each repository call commits on its own, so a lost insert race surfaces as a plain exception
+ * instead of poisoning a surrounding transaction.
+ */
+@Service
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String nodeId;
+
+    public SchedulerLockServiceImpl(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName(); // pid@hostname
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(lease);
+
+        if (schedulerLockRepository.acquireIfExpired(name, lockedUntil, nodeId, now) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+
+        // First run anywhere: create the row. If another node beats us to it, the primary key rejects our insert.
+        try {
+            schedulerLockRepository.save(new SchedulerLock(name, lockedUntil, nodeId));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String name) {
+        schedulerLockRepository.release(name, nodeId, LocalDateTime.now());
+    }
+}
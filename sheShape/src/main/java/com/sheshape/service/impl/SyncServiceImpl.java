@@ -0,0 +1,151 @@
+package com.sheshape.service.impl;
+
+import com.sheshape.dto.*;
+import com.sheshape.exception.BadRequestException;
+import com.sheshape.model.*;
+import com.sheshape.repository.*;
+import com.sheshape.service.SyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for the mobile app's caches. A token is the time a sync started; the next sync reads
+ * rows whose updated_at is at or after it (through the updated_at indexes), plus tombstones of
+ * rows deleted since. Reads go back an extra overlap window, so writes that committed after a
+ * sync but carry an earlier timestamp (long transactions, app/database clock skew) are not missed;
+ * clients upsert by id, so the few repeated rows are harmless.
+ */
+@Service
+@Slf4j
+public class SyncServiceImpl implements SyncService {
+
+    private static final Set<Long> NONE = Collections.emptySet();
+
+    private final ProductRepository productRepository;
+    private final GymProgramRepository gymProgramRepository;
+    private final NutritionPlanRepository nutritionPlanRepository;
+    private final BlogPostRepository blogPostRepository;
+    private final FAQRepository faqRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+
+    @Value("${sync.overlap-ms:60000}")
+    private long overlapMs;
+
+    @Value("${sync.tombstones.retention-days:30}")
+    private int retentionDays;
+
+    public SyncServiceImpl(ProductRepository productRepository, GymProgramRepository gymProgramRepository,
+                           NutritionPlanRepository nutritionPlanRepository, BlogPostRepository blogPostRepository,
+                           FAQRepository faqRepository, SyncTombstoneRepository syncTombstoneRepository) {
+        this.productRepository = productRepository;
+        this.gymProgramRepository = gymProgramRepository;
+        this.nutritionPlanRepository = nutritionPlanRepository;
+        this.blogPostRepository = blogPostRepository;
+        this.faqRepository = faqRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncResponseDto getChangesSince(String since) {
+        // Taken before reading, so anything committed while this runs is included next time
+        long startedAt = System.currentTimeMillis();
+        String token = Long.toString(startedAt, Character.MAX_RADIX);
+
+        LocalDateTime cutoff = parseToken(since);
+        // Tombstones older than the retention are gone, so an older client can't be brought up to date
+        if (cutoff == null || cutoff.isBefore(toDateTime(startedAt).minusDays(retentionDays))) {
+            return fullSync(token);
+        }
+
+        Map<SyncTombstone.EntityType, Set<Long>> deleted = syncTombstoneRepository.findByDeletedAtGreaterThanEqual(cutoff)
+                .stream()
+                .collect(Collectors.groupingBy(SyncTombstone::getEntityType,
+                        Collectors.mapping(SyncTombstone::getEntityId, Collectors.toCollection(LinkedHashSet::new))));
+
+        return new SyncResponseDto(token, false,
+                changes(productRepository.findByUpdatedAtGreaterThanEqual(cutoff), Product::getIsActive,
+                        Product::getId, ProductDto::new, deleted.getOrDefault(SyncTombstone.EntityType.PRODUCT, NONE)),
+                changes(gymProgramRepository.findByUpdatedAtGreaterThanEqual(cutoff), GymProgram::getIsActive,
+                        GymProgram::getId, GymProgramDto::new,
+                        deleted.getOrDefault(SyncTombstone.EntityType.GYM_PROGRAM, NONE)),
+                changes(nutritionPlanRepository.findByUpdatedAtGreaterThanEqual(cutoff), NutritionPlan::getIsActive,
+                        NutritionPlan::getId, NutritionPlanDto::new,
+                        deleted.getOrDefault(SyncTombstone.EntityType.NUTRITION_PLAN, NONE)),
+                changes(blogPostRepository.findByUpdatedAtGreaterThanEqual(cutoff), BlogPost::getIsPublished,
+                        BlogPost::getId, BlogPostDto::new,
+                        deleted.getOrDefault(SyncTombstone.EntityType.BLOG_POST, NONE)),
+                changes(faqRepository.findByUpdatedAtGreaterThanEqual(cutoff), faq -> true,
+                        FAQ::getId, SyncServiceImpl::toFaqDto, deleted.getOrDefault(SyncTombstone.EntityType.FAQ, NONE)));
+    }
+
+    private SyncResponseDto fullSync(String token) {
+        return new SyncResponseDto(token, true,
+                all(productRepository.findByIsActiveTrue(), ProductDto::new),
+                all(gymProgramRepository.findByIsActiveTrue(), GymProgramDto::new),
+                all(nutritionPlanRepository.findByIsActiveTrue(), NutritionPlanDto::new),
+                all(blogPostRepository.findByIsPublishedTrue(), BlogPostDto::new),
+                all(faqRepository.findByOrderByDisplayOrderAsc(), SyncServiceImpl::toFaqDto));
+    }
+
+    private static <E, D> SyncChangesDto<D> all(List<E> rows, Function<E, D> toDto) {
+        return new SyncChangesDto<>(rows.stream().map(toDto).collect(Collectors.toList()), new ArrayList<>());
+    }
+
+    /**
+     * Split changed rows into visible ones to upsert and hidden ones (deactivated, unpublished) to
+     * drop, and add the deleted ids
+     */
+    private static <E, D> SyncChangesDto<D> changes(List<E> changed, Predicate<E> visible, Function<E, Long> id,
+                                                    Function<E, D> toDto, Set<Long> deleted) {
+        SyncChangesDto<D> changes = new SyncChangesDto<>();
+        for (E row : changed) {
+            if (visible.test(row)) {
+                changes.getUpdated().add(toDto.apply(row));
+            } else {
+                changes.getRemoved().add(id.apply(row));
+            }
+        }
+        changes.getRemoved().addAll(deleted);
+        return changes;
+    }
+
+    private LocalDateTime parseToken(String since) {
+        if (since == null || since.isBlank()) {
+            return null;
+        }
+        try {
+            return toDateTime(Long.parseLong(since, Character.MAX_RADIX) - overlapMs);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid sync token: " + since);
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static FAQDto toFaqDto(FAQ faq) {
+        return new FAQDto(faq.getId(), faq.getQuestion(), faq.getAnswer(), faq.getCategory());
+    }
+
+    @Scheduled(cron = "${sync.tombstones.purge-cron:0 45 4 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = syncTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} sync tombstones older than {} days", purged, retentionDays);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sheshape.service.order;
+
+import java.time.LocalDateTime;
+
+public interface CartReaperService {
+
+    /**
+     * Delete one chunk of carts untouched since abandonedBefore, or empty and untouched since
+     * emptyBefore, together with their items. Returns the number of carts deleted.
+     */
+    int reapBatch(LocalDateTime abandonedBefore, LocalDateTime emptyBefore, int batchSize);
+
+    /**
+     * Delete all reapable carts, one chunk per transaction, backing off while the database is busy
+     */
+    int reapCarts();
+}
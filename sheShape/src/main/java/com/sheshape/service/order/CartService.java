@@ -1,6 +1,9 @@
 package com.sheshape.service.order;
 
+import com.sheshape.dto.order.CartBatchRequestDto;
+import com.sheshape.dto.order.CartDeltaDto;
 import com.sheshape.dto.order.CartDto;
+import com.sheshape.dto.order.CartValidationDto;
 import com.sheshape.dto.order.AddToCartRequestDto;
 
 public interface CartService {
@@ -15,16 +18,41 @@ public interface CartService {
      */
     CartDto addToCart(Long userId, AddToCartRequestDto request);
 
+    /**
+     * Same as {@link #addToCart(Long, AddToCartRequestDto)}, returning only the changed line and the new totals
+     */
+    CartDeltaDto addToCartDelta(Long userId, AddToCartRequestDto request);
+
     /**
      * Update item quantity in cart
      */
     CartDto updateCartItemQuantity(Long userId, Long productId, Integer quantity);
 
+    /**
+     * Same as {@link #updateCartItemQuantity(Long, Long, Integer)}, returning only the changed line and the new totals
+     */
+    CartDeltaDto updateCartItemQuantityDelta(Long userId, Long productId, Integer quantity);
+
     /**
      * Remove item from cart
      */
     CartDto removeFromCart(Long userId, Long productId);
 
+    /**
+     * Same as {@link #removeFromCart(Long, Long)}, returning only the changed line and the new totals
+     */
+    CartDeltaDto removeFromCartDelta(Long userId, Long productId);
+
+    /**
+     * Apply a list of add/set/remove operations in one transaction
+     */
+    CartDto applyBatch(Long userId, CartBatchRequestDto request);
+
+    /**
+     * Merge a signed guest cart token into the user's persistent cart
+     */
+    CartDto mergeGuestCart(Long userId, String guestCartToken);
+
     /**
      * Clear all items from cart
      */
@@ -39,4 +67,9 @@ public interface CartService {
      * Validate cart items (check availability, pricing, etc.)
      */
     boolean validateCart(Long userId);
+
+    /**
+     * List the cart lines that cannot be checked out, without loading the cart
+     */
+    CartValidationDto getCartValidation(Long userId);
 }
\ No newline at end of file
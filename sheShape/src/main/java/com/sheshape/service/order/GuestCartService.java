@@ -0,0 +1,30 @@
+package com.sheshape.service.order;
+
+import com.sheshape.dto.order.AddToCartRequestDto;
+import com.sheshape.dto.order.GuestCartDto;
+
+/**
+ * Carts for anonymous visitors. State lives entirely in the signed token; nothing is written to the database.
+ */
+public interface GuestCartService {
+
+    /**
+     * Render the guest cart held in the token (an empty cart when the token is missing or expired)
+     */
+    GuestCartDto getCart(String token);
+
+    /**
+     * Add item to the guest cart and return the re-signed token
+     */
+    GuestCartDto addToCart(String token, AddToCartRequestDto request);
+
+    /**
+     * Set item quantity in the guest cart; zero removes the item
+     */
+    GuestCartDto updateCartItemQuantity(String token, Long productId, Integer quantity);
+
+    /**
+     * Remove item from the guest cart
+     */
+    GuestCartDto removeFromCart(String token, Long productId);
+}
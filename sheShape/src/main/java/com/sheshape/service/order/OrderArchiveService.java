@@ -0,0 +1,17 @@
+package com.sheshape.service.order;
+
+import java.time.LocalDateTime;
+
+public interface OrderArchiveService {
+
+    /**
+     * Move one batch of delivered/cancelled orders last updated before the cutoff
+     * into the archive tables. Returns the number of orders archived.
+     */
+    int archiveBatch(LocalDateTime cutoff, int batchSize);
+
+    /**
+     * Archive all eligible orders older than the configured age, one batch per transaction
+     */
+    int archiveEligibleOrders();
+}
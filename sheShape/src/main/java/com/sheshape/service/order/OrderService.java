@@ -2,6 +2,7 @@ package com.sheshape.service.order;
 
 import com.sheshape.dto.order.CheckoutRequestDto;
 import com.sheshape.dto.order.OrderDto;
+import com.sheshape.dto.order.OrderStatusEventDto;
 import com.sheshape.dto.order.PaymentDetailsDto;
 import com.sheshape.model.order.Order;
 import org.springframework.data.domain.Page;
@@ -21,6 +22,11 @@ public interface OrderService {
      */
     OrderDto getOrderById(Long orderId);
 
+    /**
+     * Get current order status without loading items
+     */
+    OrderStatusEventDto getOrderStatus(Long orderId);
+
     /**
      * Get order by order number
      */
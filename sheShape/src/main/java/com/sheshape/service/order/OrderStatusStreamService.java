@@ -0,0 +1,17 @@
+package com.sheshape.service.order;
+
+import com.sheshape.dto.order.OrderStatusEventDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface OrderStatusStreamService {
+
+    /**
+     * Open a status stream for an order, starting with the given current status
+     */
+    SseEmitter subscribe(OrderStatusEventDto currentStatus);
+
+    /**
+     * Number of open order status streams on this node
+     */
+    int getActiveConnections();
+}
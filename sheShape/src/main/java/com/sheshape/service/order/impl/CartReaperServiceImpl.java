@@ -0,0 +1,224 @@
+package com.sheshape.service.order.impl;
+
+import com.sheshape.repository.order.CartItemRepository;
+import com.sheshape.repository.order.CartRepository;
+import com.sheshape.service.SchedulerLockService;
+import com.sheshape.service.order.CartReaperService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class CartReaperServiceImpl implements CartReaperService {
+
+    private static final String LOCK_NAME = "cart-reaper";
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final CartReaperService self;
+    private final HikariDataSource hikariDataSource;
+
+    private final Counter cartsDeleted;
+    private final Counter itemsDeleted;
+    private final Counter pauses;
+    private final Counter skippedRuns;
+
+    // Runs pause while the database is busy, so they sleep here instead of on the shared scheduler thread
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${carts.reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${carts.reaper.abandoned-days:30}")
+    private int abandonedDays;
+
+    @Value("${carts.reaper.empty-grace-hours:24}")
+    private int emptyGraceHours;
+
+    @Value("${carts.reaper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${carts.reaper.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${carts.reaper.slow-batch-ms:500}")
+    private long slowBatchMs;
+
+    @Value("${carts.reaper.pause-ms:2000}")
+    private long pauseMs;
+
+    @Value("${carts.reaper.max-pauses-per-run:30}")
+    private int maxPausesPerRun;
+
+    @Value("${carts.reaper.lock-lease-minutes:30}")
+    private long lockLeaseMinutes;
+
+    public CartReaperServiceImpl(CartRepository cartRepository,
+                                 CartItemRepository cartItemRepository,
+                                 SchedulerLockService schedulerLockService,
+                                 @Lazy CartReaperService self,
+                                 DataSource dataSource,
+                                 MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.schedulerLockService = schedulerLockService;
+        this.self = self;
+        this.hikariDataSource = hikariDataSource(dataSource);
+
+        this.cartsDeleted = meterRegistry.counter("carts.reaper.carts.deleted");
+        this.itemsDeleted = meterRegistry.counter("carts.reaper.items.deleted");
+        this.pauses = meterRegistry.counter("carts.reaper.pauses");
+        this.skippedRuns = meterRegistry.counter("carts.reaper.runs.skipped");
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int reapBatch(LocalDateTime abandonedBefore, LocalDateTime emptyBefore, int batchSize) {
+        List<Long> cartIds = cartRepository.findReapableCartIds(
+                abandonedBefore, emptyBefore, PageRequest.of(0, batchSize));
+        if (cartIds.isEmpty()) {
+            return 0;
+        }
+
+        itemsDeleted.increment(cartItemRepository.deleteByCartIdIn(cartIds));
+        cartRepository.deleteAllByIdInBatch(cartIds);
+        cartsDeleted.increment(cartIds.size());
+
+        return cartIds.size();
+    }
+
+    @Scheduled(cron = "${carts.reaper.cron:0 15 * * * *}")
+    public void scheduleReap() {
+        // A run still pausing from the previous tick just carries on; the next tick picks up the rest
+        if (running.compareAndSet(false, true)) {
+            runner.execute(this::reapInBackground);
+        }
+    }
+
+    private void reapInBackground() {
+        try {
+            reapCarts();
+        } catch (RuntimeException e) {
+            log.warn("Cart reaper run failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    @Override
+    public int reapCarts() {
+        if (!enabled) {
+            return 0;
+        }
+
+        // Every node schedules the job; only the lease holder runs it
+        if (!schedulerLockService.tryAcquire(LOCK_NAME, Duration.ofMinutes(lockLeaseMinutes))) {
+            skippedRuns.increment();
+            return 0;
+        }
+
+        try {
+            return reapInChunks();
+        } finally {
+            schedulerLockService.release(LOCK_NAME);
+        }
+    }
+
+    private int reapInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime abandonedBefore = now.minusDays(abandonedDays);
+        LocalDateTime emptyBefore = now.minusHours(emptyGraceHours);
+        int total = 0;
+        int pausesThisRun = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (isDatabaseBusy()) {
+                if (++pausesThisRun > maxPausesPerRun || !pause()) {
+                    log.info("Cart reaper stopping early: database stayed busy");
+                    break;
+                }
+                continue;
+            }
+
+            long started = System.nanoTime();
+            int deleted = self.reapBatch(abandonedBefore, emptyBefore, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+
+            // A slow chunk means we are competing with live traffic; give it room before the next one
+            if (Duration.ofNanos(System.nanoTime() - started).toMillis() > slowBatchMs) {
+                if (++pausesThisRun > maxPausesPerRun || !pause()) {
+                    break;
+                }
+            }
+        }
+
+        if (total > 0) {
+            log.info("Reaped {} carts (abandoned before {}, empty before {})", total, abandonedBefore, emptyBefore);
+        }
+        return total;
+    }
+
+    /**
+     * Busy means request threads are already queueing for a pooled connection
+     */
+    private boolean isDatabaseBusy() {
+        HikariPoolMXBean pool = hikariDataSource != null ? hikariDataSource.getHikariPoolMXBean() : null;
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private boolean pause() {
+        pauses.increment();
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static HikariDataSource hikariDataSource(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            log.debug("Cannot inspect connection pool, cart reaper will not back off on pool pressure", e);
+        }
+        return null;
+    }
+}
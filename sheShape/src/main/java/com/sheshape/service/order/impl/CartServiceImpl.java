@@ -1,6 +1,9 @@
 package com.sheshape.service.order.impl;
 
+import com.sheshape.dto.order.CartBatchRequestDto;
+import com.sheshape.dto.order.CartDeltaDto;
 import com.sheshape.dto.order.CartDto;
+import com.sheshape.dto.order.CartValidationDto;
 import com.sheshape.dto.order.AddToCartRequestDto;
 import com.sheshape.exception.BadRequestException;
 import com.sheshape.exception.ResourceNotFoundException;
@@ -12,13 +15,23 @@ import com.sheshape.repository.ProductRepository;
 import com.sheshape.repository.UserRepository;
 import com.sheshape.repository.order.CartItemRepository;
 import com.sheshape.repository.order.CartRepository;
+import com.sheshape.security.GuestCartTokenUtil;
 import com.sheshape.service.order.CartService;
+import com.sheshape.service.recommendation.TrendingProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,19 +43,244 @@ public class CartServiceImpl implements CartService {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final GuestCartTokenUtil guestCartTokenUtil;
+    private final TrendingProductService trendingProductService;
 
     @Override
-    @Transactional(readOnly = true)
     public CartDto getUserCart(Long userId) {
+        return new CartDto(getOrCreateCart(userId));
+    }
+
+    @Override
+    public CartDto addToCart(Long userId, AddToCartRequestDto request) {
+        return new CartDto(applyAddToCart(userId, request));
+    }
+
+    @Override
+    public CartDeltaDto addToCartDelta(Long userId, AddToCartRequestDto request) {
+        return new CartDeltaDto(applyAddToCart(userId, request), request.getProductId());
+    }
+
+    @Override
+    public CartDto updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
+        return new CartDto(applyQuantityUpdate(userId, productId, quantity));
+    }
+
+    @Override
+    public CartDeltaDto updateCartItemQuantityDelta(Long userId, Long productId, Integer quantity) {
+        return new CartDeltaDto(applyQuantityUpdate(userId, productId, quantity), productId);
+    }
+
+    @Override
+    public CartDto removeFromCart(Long userId, Long productId) {
+        return new CartDto(applyRemove(userId, productId));
+    }
+
+    @Override
+    public CartDeltaDto removeFromCartDelta(Long userId, Long productId) {
+        return new CartDeltaDto(applyRemove(userId, productId), productId);
+    }
+
+    @Override
+    public CartDto applyBatch(Long userId, CartBatchRequestDto request) {
+        Cart cart = getOrCreateCart(userId);
+
+        // Fold the operations into a target quantity per product, starting from what the cart holds
+        Map<Long, Integer> targetQuantities = new LinkedHashMap<>();
+        for (CartBatchRequestDto.Operation operation : request.getOperations()) {
+            Long productId = operation.getProductId();
+            int current = targetQuantities.computeIfAbsent(productId,
+                    id -> cart.findItem(id).map(CartItem::getQuantity).orElse(0));
+
+            switch (operation.getType()) {
+                case ADD -> {
+                    if (operation.getQuantity() == null || operation.getQuantity() < 1) {
+                        throw new BadRequestException("Quantity must be at least 1 for ADD of product: " + productId);
+                    }
+                    targetQuantities.put(productId, current + operation.getQuantity());
+                }
+                case SET -> {
+                    if (operation.getQuantity() == null) {
+                        throw new BadRequestException("Quantity is required for SET of product: " + productId);
+                    }
+                    targetQuantities.put(productId, operation.getQuantity());
+                }
+                case REMOVE -> targetQuantities.put(productId, 0);
+            }
+        }
+
+        // Products already in the cart came with it; the rest are loaded in one query
+        Map<Long, Product> products = new HashMap<>();
+        cart.getItems().forEach(item -> products.put(item.getProduct().getId(), item.getProduct()));
+        List<Long> missingIds = targetQuantities.keySet().stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            productRepository.findAllById(missingIds).forEach(product -> products.put(product.getId(), product));
+        }
+
+        // Validate every line in one pass before touching anything
+        List<String> problems = new ArrayList<>();
+        targetQuantities.forEach((productId, quantity) -> {
+            if (quantity == 0) {
+                return;
+            }
+            Product product = products.get(productId);
+            if (product == null) {
+                problems.add("Product not found with id: " + productId);
+            } else if (!product.getIsActive()) {
+                problems.add("Product " + productId + " is not available for purchase");
+            } else if (product.getInventoryCount() < quantity) {
+                problems.add("Not enough inventory for product " + productId + ". Available: " + product.getInventoryCount());
+            }
+        });
+        if (!problems.isEmpty()) {
+            throw new BadRequestException(String.join("; ", problems));
+        }
+
+        List<CartItem> newItems = new ArrayList<>();
+        int quantityDelta = 0;
+        BigDecimal amountDelta = BigDecimal.ZERO;
+
+        for (Map.Entry<Long, Integer> target : targetQuantities.entrySet()) {
+            Optional<CartItem> existingItem = cart.findItem(target.getKey());
+            int currentQuantity = existingItem.map(CartItem::getQuantity).orElse(0);
+            int newQuantity = target.getValue();
+            if (newQuantity == currentQuantity) {
+                continue;
+            }
+
+            Product product = products.get(target.getKey());
+            if (newQuantity == 0) {
+                cart.removeItem(existingItem.get());
+            } else if (existingItem.isPresent()) {
+                existingItem.get().setQuantity(newQuantity);
+            } else {
+                CartItem cartItem = CartItem.builder()
+                        .product(product)
+                        .quantity(newQuantity)
+                        .build();
+                cart.addItem(cartItem);
+                newItems.add(cartItem);
+            }
+
+            int change = newQuantity - currentQuantity;
+            quantityDelta += change;
+            amountDelta = amountDelta.add(CartItem.unitPriceOf(product).multiply(BigDecimal.valueOf(change)));
+        }
+
+        cartItemRepository.saveAll(newItems);
+        if (quantityDelta != 0 || amountDelta.signum() != 0) {
+            addToTotals(cart, quantityDelta, amountDelta);
+        }
+
+        log.info("Applied {} cart operations for user: {}", request.getOperations().size(), userId);
+        return new CartDto(cart);
+    }
+
+    @Override
+    public CartDto mergeGuestCart(Long userId, String guestCartToken) {
+        Map<Long, Integer> guestItems = guestCartTokenUtil.decode(guestCartToken);
         Cart cart = getOrCreateCart(userId);
+        if (guestItems.isEmpty()) {
+            return new CartDto(cart);
+        }
+
+        // One query re-validates every guest line against current stock
+        Map<Long, Product> products = productRepository.findAllById(guestItems.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<CartItem> newItems = new ArrayList<>();
+        int quantityDelta = 0;
+        BigDecimal amountDelta = BigDecimal.ZERO;
+
+        for (Map.Entry<Long, Integer> guestItem : guestItems.entrySet()) {
+            Product product = products.get(guestItem.getKey());
+            if (product == null || !product.getIsActive()) {
+                continue;
+            }
+
+            Optional<CartItem> existingItem = cart.findItem(product.getId());
+            int currentQuantity = existingItem.map(CartItem::getQuantity).orElse(0);
+            // Lines are capped at the stock on hand rather than failing the whole merge
+            int mergedQuantity = Math.min(currentQuantity + guestItem.getValue(), product.getInventoryCount());
+            if (mergedQuantity <= currentQuantity) {
+                continue;
+            }
+
+            if (existingItem.isPresent()) {
+                existingItem.get().setQuantity(mergedQuantity);
+            } else {
+                CartItem cartItem = CartItem.builder()
+                        .product(product)
+                        .quantity(mergedQuantity)
+                        .build();
+                cart.addItem(cartItem);
+                newItems.add(cartItem);
+            }
+
+            int added = mergedQuantity - currentQuantity;
+            quantityDelta += added;
+            amountDelta = amountDelta.add(CartItem.unitPriceOf(product).multiply(BigDecimal.valueOf(added)));
+        }
+
+        cartItemRepository.saveAll(newItems);
+        if (quantityDelta != 0) {
+            addToTotals(cart, quantityDelta, amountDelta);
+        }
+
+        log.info("Merged guest cart into cart for user: {} ({} lines, {} units added)", userId, guestItems.size(), quantityDelta);
         return new CartDto(cart);
     }
 
     @Override
-    public CartDto addToCart(Long userId, AddToCartRequestDto request) {
+    public void clearCart(Long userId) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+
+        cart.clearItems();
+        cartItemRepository.deleteByCartId(cart.getId());
+        cartRepository.setTotals(cart.getId(), 0, BigDecimal.ZERO);
+
+        log.info("Cleared cart for user: {}", userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Integer getCartItemsCount(Long userId) {
+        // Single-row read of the stored count; stale carts (from before the column, or marked by a
+        // price change or import) fall back to SUM
+        return cartRepository.findByUserId(userId)
+                .map(cart -> cart.getTotalsStale()
+                        ? cartItemRepository.countTotalItemsInCart(cart.getId())
+                        : cart.getItemCount())
+                .orElse(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean validateCart(Long userId) {
+        return cartItemRepository.findInvalidItemsByUserId(userId).isEmpty();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartValidationDto getCartValidation(Long userId) {
+        // One aggregate query; a missing or empty cart simply has no offending lines
+        return new CartValidationDto(cartItemRepository.findInvalidItemsByUserId(userId));
+    }
+
+    /**
+     * Adds to the cart loaded once with its items; the product is only fetched when it isn't already in the cart
+     */
+    private Cart applyAddToCart(Long userId, AddToCartRequestDto request) {
+        Cart cart = getOrCreateCart(userId);
+        Optional<CartItem> existingItem = cart.findItem(request.getProductId());
+
         // Validate product
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
+        Product product = existingItem.map(CartItem::getProduct)
+                .orElseGet(() -> productRepository.findById(request.getProductId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId())));
 
         if (!product.getIsActive()) {
             throw new BadRequestException("Product is not available for purchase");
@@ -52,12 +290,6 @@ public class CartServiceImpl implements CartService {
             throw new BadRequestException("Not enough inventory available. Available: " + product.getInventoryCount());
         }
 
-        // Get or create cart
-        Cart cart = getOrCreateCart(userId);
-
-        // Check if item already exists in cart
-        Optional<CartItem> existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), request.getProductId());
-
         if (existingItem.isPresent()) {
             // Update quantity
             CartItem item = existingItem.get();
@@ -68,41 +300,37 @@ public class CartServiceImpl implements CartService {
             }
 
             item.setQuantity(newQuantity);
-            cartItemRepository.save(item);
+            applyTotalsDelta(cart, request.getQuantity(), item.getUnitPrice());
             log.info("Updated cart item quantity for user: {} product: {} new quantity: {}", userId, request.getProductId(), newQuantity);
         } else {
             // Create new cart item
             CartItem cartItem = CartItem.builder()
-                    .cart(cart)
                     .product(product)
                     .quantity(request.getQuantity())
                     .build();
 
             cart.addItem(cartItem);
             cartItemRepository.save(cartItem);
+            applyTotalsDelta(cart, request.getQuantity(), cartItem.getUnitPrice());
             log.info("Added new item to cart for user: {} product: {} quantity: {}", userId, request.getProductId(), request.getQuantity());
         }
 
-        Cart updatedCart = cartRepository.findByUserIdWithItems(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-
-        return new CartDto(updatedCart);
+        trendingProductService.recordAddToCart(request.getProductId());
+        return cart;
     }
 
-    @Override
-    public CartDto updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
+    private Cart applyQuantityUpdate(Long userId, Long productId, Integer quantity) {
         if (quantity < 0) {
             throw new BadRequestException("Quantity cannot be negative");
         }
 
         if (quantity == 0) {
-            return removeFromCart(userId, productId);
+            return applyRemove(userId, productId);
         }
 
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        Cart cart = getCart(userId);
 
-        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), productId)
+        CartItem cartItem = cart.findItem(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Item not found in cart"));
 
         // Check inventory
@@ -110,71 +338,72 @@ public class CartServiceImpl implements CartService {
             throw new BadRequestException("Not enough inventory available. Available: " + cartItem.getProduct().getInventoryCount());
         }
 
+        int quantityDelta = quantity - cartItem.getQuantity();
         cartItem.setQuantity(quantity);
-        cartItemRepository.save(cartItem);
-
-        Cart updatedCart = cartRepository.findByUserIdWithItems(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        applyTotalsDelta(cart, quantityDelta, cartItem.getUnitPrice());
 
         log.info("Updated cart item quantity for user: {} product: {} quantity: {}", userId, productId, quantity);
-        return new CartDto(updatedCart);
+        return cart;
     }
 
-    @Override
-    public CartDto removeFromCart(Long userId, Long productId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-
-        cartItemRepository.deleteByCartIdAndProductId(cart.getId(), productId);
+    private Cart applyRemove(Long userId, Long productId) {
+        Cart cart = getCart(userId);
 
-        Cart updatedCart = cartRepository.findByUserIdWithItems(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        cart.findItem(productId).ifPresent(cartItem -> {
+            BigDecimal unitPrice = cartItem.getUnitPrice();
+            cart.removeItem(cartItem); // orphan removal deletes the row
+            applyTotalsDelta(cart, -cartItem.getQuantity(), unitPrice);
+        });
 
         log.info("Removed item from cart for user: {} product: {}", userId, productId);
-        return new CartDto(updatedCart);
+        return cart;
     }
 
-    @Override
-    public void clearCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+    /**
+     * Adds a mutation's effect to the stored totals in one UPDATE and mirrors it on the loaded cart
+     */
+    private void applyTotalsDelta(Cart cart, int quantityDelta, BigDecimal unitPrice) {
+        addToTotals(cart, quantityDelta, unitPrice.multiply(BigDecimal.valueOf(quantityDelta)));
+    }
 
-        cart.clearItems();
-        cartItemRepository.deleteByCartId(cart.getId());
+    private void addToTotals(Cart cart, int quantityDelta, BigDecimal amountDelta) {
+        cartRepository.adjustTotals(cart.getId(), quantityDelta, amountDelta);
 
-        log.info("Cleared cart for user: {}", userId);
+        cart.setItemCount(cart.getItemCount() + quantityDelta);
+        cart.setSubtotal(cart.getSubtotal().add(amountDelta));
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public Integer getCartItemsCount(Long userId) {
-        Optional<Cart> cart = cartRepository.findByUserId(userId);
-        if (cart.isPresent()) {
-            return cartItemRepository.countTotalItemsInCart(cart.get().getId());
+    /**
+     * Recomputes the totals from current product prices if a price change marked the cart stale,
+     * so mutations add their deltas to, and responses show, current totals
+     */
+    private Cart withFreshTotals(Cart cart) {
+        if (cart.getTotalsStale()) {
+            recomputeTotals(cart);
         }
-        return 0;
+        return cart;
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public boolean validateCart(Long userId) {
-        Optional<Cart> cartOpt = cartRepository.findByUserIdWithItems(userId);
-        if (cartOpt.isEmpty()) {
-            return true; // Empty cart is valid
-        }
+    private void recomputeTotals(Cart cart) {
+        int itemCount = cart.getTotalItems();
+        BigDecimal subtotal = cart.getTotalAmount();
+        cartRepository.setTotals(cart.getId(), itemCount, subtotal);
 
-        Cart cart = cartOpt.get();
-        for (CartItem item : cart.getItems()) {
-            Product product = item.getProduct();
-            if (!product.getIsActive() || product.getInventoryCount() < item.getQuantity()) {
-                return false;
-            }
-        }
-        return true;
+        cart.setItemCount(itemCount);
+        cart.setSubtotal(subtotal);
+        cart.setTotalsStale(false);
+        log.debug("Recomputed stale totals for cart: {}", cart.getId());
+    }
+
+    private Cart getCart(Long userId) {
+        return cartRepository.findByUserIdWithItems(userId)
+                .map(this::withFreshTotals)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
     }
 
     private Cart getOrCreateCart(Long userId) {
         return cartRepository.findByUserIdWithItems(userId)
+                .map(this::withFreshTotals)
                 .orElseGet(() -> {
                     User user = userRepository.findById(userId)
                             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
@@ -0,0 +1,132 @@
+package com.sheshape.service.order.impl;
+
+import com.sheshape.dto.order.AddToCartRequestDto;
+import com.sheshape.dto.order.CartItemDto;
+import com.sheshape.dto.order.GuestCartDto;
+import com.sheshape.exception.BadRequestException;
+import com.sheshape.exception.ResourceNotFoundException;
+import com.sheshape.model.Product;
+import com.sheshape.model.order.CartItem;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.security.GuestCartTokenUtil;
+import com.sheshape.service.order.GuestCartService;
+import com.sheshape.service.recommendation.TrendingProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class GuestCartServiceImpl implements GuestCartService {
+
+    private final ProductRepository productRepository;
+    private final GuestCartTokenUtil guestCartTokenUtil;
+    private final TrendingProductService trendingProductService;
+
+    @Override
+    public GuestCartDto getCart(String token) {
+        Map<Long, Integer> items = guestCartTokenUtil.decode(token);
+        return render(items, loadProducts(items));
+    }
+
+    @Override
+    public GuestCartDto addToCart(String token, AddToCartRequestDto request) {
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            throw new BadRequestException("Quantity must be at least 1");
+        }
+
+        Map<Long, Integer> items = guestCartTokenUtil.decode(token);
+        int newQuantity;
+        try {
+            newQuantity = Math.addExact(items.getOrDefault(request.getProductId(), 0), request.getQuantity());
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Quantity is too large");
+        }
+        GuestCartDto cart = setQuantity(items, request.getProductId(), newQuantity);
+        trendingProductService.recordAddToCart(request.getProductId());
+        return cart;
+    }
+
+    @Override
+    public GuestCartDto updateCartItemQuantity(String token, Long productId, Integer quantity) {
+        if (quantity < 0) {
+            throw new BadRequestException("Quantity cannot be negative");
+        }
+
+        Map<Long, Integer> items = guestCartTokenUtil.decode(token);
+        if (!items.containsKey(productId)) {
+            throw new ResourceNotFoundException("Item not found in cart");
+        }
+        if (quantity == 0) {
+            items.remove(productId);
+            return render(items, loadProducts(items));
+        }
+        return setQuantity(items, productId, quantity);
+    }
+
+    @Override
+    public GuestCartDto removeFromCart(String token, Long productId) {
+        return updateCartItemQuantity(token, productId, 0);
+    }
+
+    private GuestCartDto setQuantity(Map<Long, Integer> items, Long productId, int quantity) {
+        // Only positive quantities are signed into a token; removal goes through items.remove
+        if (quantity <= 0) {
+            throw new BadRequestException("Quantity must be at least 1");
+        }
+        items.put(productId, quantity);
+
+        // The changed product is validated from the same single query that loads the rest of the cart
+        Map<Long, Product> products = loadProducts(items);
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        if (!product.getIsActive()) {
+            throw new BadRequestException("Product is not available for purchase");
+        }
+        if (product.getInventoryCount() < quantity) {
+            throw new BadRequestException("Not enough inventory available. Available: " + product.getInventoryCount());
+        }
+
+        return render(items, products);
+    }
+
+    private Map<Long, Product> loadProducts(Map<Long, Integer> items) {
+        if (items.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findAllById(items.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    private GuestCartDto render(Map<Long, Integer> items, Map<Long, Product> products) {
+        // Products deleted since the token was issued simply drop out of the cart
+        items.keySet().retainAll(products.keySet());
+
+        List<CartItemDto> itemDtos = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        int totalItems = 0;
+        for (Map.Entry<Long, Integer> entry : items.entrySet()) {
+            CartItem item = CartItem.builder()
+                    .product(products.get(entry.getKey()))
+                    .quantity(entry.getValue())
+                    .build();
+            itemDtos.add(new CartItemDto(item));
+            totalAmount = totalAmount.add(item.getTotalPrice());
+            totalItems += item.getQuantity();
+        }
+
+        return new GuestCartDto(guestCartTokenUtil.encode(items), itemDtos, totalAmount, totalItems);
+    }
+}
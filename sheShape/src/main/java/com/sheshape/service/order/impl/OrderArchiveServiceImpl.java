@@ -0,0 +1,104 @@
+package com.sheshape.service.order.impl;
+
+import com.sheshape.model.order.ArchivedOrder;
+import com.sheshape.model.order.Order;
+import com.sheshape.repository.order.ArchivedOrderRepository;
+import com.sheshape.repository.order.OrderItemRepository;
+import com.sheshape.repository.order.OrderRepository;
+import com.sheshape.service.order.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final Set<Order.OrderStatus> ARCHIVABLE_STATUSES =
+            EnumSet.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveService self;
+
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.archive.min-age-days:180}")
+    private int minAgeDays;
+
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    public OrderArchiveServiceImpl(OrderRepository orderRepository,
+                                   OrderItemRepository orderItemRepository,
+                                   ArchivedOrderRepository archivedOrderRepository,
+                                   @Lazy OrderArchiveService self) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.self = self;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> orderIds = orderRepository.findArchivableOrderIds(
+                ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> orders = orderRepository.findAllByIdInWithItems(orderIds);
+        List<ArchivedOrder> archived = orders.stream()
+                .map(ArchivedOrder::from)
+                .toList();
+
+        archivedOrderRepository.saveAll(archived);
+        archivedOrderRepository.flush();
+
+        orderItemRepository.deleteByOrderIdIn(orderIds);
+        orderRepository.deleteAllByIdInBatch(orderIds);
+
+        return orders.size();
+    }
+
+    @Override
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public int archiveEligibleOrders() {
+        if (!enabled) {
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        int total = 0;
+
+        // Each batch commits on its own so locks on the hot tables stay short
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int archived = self.archiveBatch(cutoff, batchSize);
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archived {} orders last updated before {}", total, cutoff);
+        }
+        return total;
+    }
+}
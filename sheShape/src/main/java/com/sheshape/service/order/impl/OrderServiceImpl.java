@@ -1,8 +1,11 @@
 package com.sheshape.service.order.impl;
 
 import com.sheshape.dto.order.AddressDto;
+import com.sheshape.dto.order.CartValidationDto;
 import com.sheshape.dto.order.CheckoutRequestDto;
 import com.sheshape.dto.order.OrderDto;
+import com.sheshape.dto.order.OrderPlacedEventDto;
+import com.sheshape.dto.order.OrderStatusEventDto;
 import com.sheshape.dto.order.PaymentDetailsDto;
 import com.sheshape.exception.BadRequestException;
 import com.sheshape.exception.ResourceNotFoundException;
@@ -13,6 +16,7 @@ import com.sheshape.model.order.CartItem;
 import com.sheshape.model.order.Order;
 import com.sheshape.model.order.OrderItem;
 import com.sheshape.repository.UserRepository;
+import com.sheshape.repository.order.ArchivedOrderRepository;
 import com.sheshape.repository.order.CartRepository;
 import com.sheshape.repository.order.OrderRepository;
 import com.sheshape.service.ProductService;
@@ -20,7 +24,9 @@ import com.sheshape.service.order.CartService;
 import com.sheshape.service.order.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -30,7 +36,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,11 +52,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final AtomicInteger ORDER_NUMBER_SEQUENCE = new AtomicInteger();
+    private static final Comparator<Object[]> NEWEST_FIRST = Comparator
+            .comparing((Object[] key) -> (LocalDateTime) key[1], Comparator.reverseOrder())
+            .thenComparing(key -> (Long) key[0], Comparator.reverseOrder());
+
     private final OrderRepository orderRepository;
+
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final CartRepository cartRepository;
     private final CartService cartService;
     private final ProductService productService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public OrderDto checkout(Long userId, CheckoutRequestDto checkoutRequest) {
@@ -59,9 +80,13 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Cannot checkout with empty cart");
         }
 
-        // Validate cart items
-        if (!cartService.validateCart(userId)) {
-            throw new BadRequestException("Cart contains invalid items. Please review your cart.");
+        // Validate cart items with one set-based query instead of re-loading the cart
+        CartValidationDto validation = cartService.getCartValidation(userId);
+        if (!validation.isValid()) {
+            String productIds = validation.getIssues().stream()
+                    .map(issue -> String.valueOf(issue.getProductId()))
+                    .collect(Collectors.joining(", "));
+            throw new BadRequestException("Cart contains invalid items. Please review your cart. Products: " + productIds);
         }
 
         // Calculate totals
@@ -115,8 +140,13 @@ public class OrderServiceImpl implements OrderService {
                     .build();
 
             order.getItems().add(orderItem);
+        }
 
-            // Update inventory
+        // Lock product rows in id order, so concurrent checkouts sharing products can't deadlock
+        List<CartItem> byProductId = new ArrayList<>(cart.getItems());
+        byProductId.sort(Comparator.comparing(item -> item.getProduct().getId()));
+        for (CartItem cartItem : byProductId) {
+            Product product = cartItem.getProduct();
             if (!productService.updateInventory(product.getId(), cartItem.getQuantity())) {
                 throw new BadRequestException("Failed to update inventory for product: " + product.getName());
             }
@@ -143,6 +173,11 @@ public class OrderServiceImpl implements OrderService {
         // Clear cart after successful order
         cartService.clearCart(userId);
 
+        // Feeds "frequently bought together" once the order commits
+        eventPublisher.publishEvent(new OrderPlacedEventDto(savedOrder.getId(), savedOrder.getItems().stream()
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toList())));
+
         // Send confirmation email (async)
         try {
             sendOrderConfirmationEmail(savedOrder.getId());
@@ -157,24 +192,70 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderDto getOrderById(Long orderId) {
-        Order order = orderRepository.findByIdWithItems(orderId)
+        return orderRepository.findByIdWithItems(orderId)
+                .map(OrderDto::new)
+                .or(() -> archivedOrderRepository.findByIdWithItems(orderId).map(OrderDto::new))
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatusEventDto getOrderStatus(Long orderId) {
+        return orderRepository.findById(orderId)
+                .map(OrderStatusEventDto::new)
+                .or(() -> archivedOrderRepository.findById(orderId).map(OrderStatusEventDto::new))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
-        return new OrderDto(order);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderDto getOrderByOrderNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(OrderDto::new)
+                .or(() -> archivedOrderRepository.findByOrderNumberWithItems(orderNumber).map(OrderDto::new))
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with number: " + orderNumber));
-        return new OrderDto(order);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDto> getUserOrders(Long userId, Pageable pageable) {
-        Page<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-        return orders.map(OrderDto::new);
+        long archivedCount = archivedOrderRepository.countByUserId(userId);
+        if (archivedCount == 0 || pageable.isUnpaged()) {
+            return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).map(OrderDto::new);
+        }
+
+        // Orders are archived by status and age of last update, so archived ones can be newer than hot
+        // ones. Merge the newest (createdAt, id) keys of both tables, then load only this page's orders.
+        int wanted = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+        List<Object[]> hotKeys = orderRepository.findUserOrderKeys(userId, wanted);
+        List<Object[]> archivedKeys = archivedOrderRepository.findUserOrderKeys(userId, wanted);
+
+        List<Long> pageIds = new ArrayList<>(pageable.getPageSize());
+        Set<Long> hotIds = new HashSet<>();
+        Set<Long> archivedIds = new HashSet<>();
+        int hot = 0;
+        int archived = 0;
+        for (long position = 0; position < wanted && (hot < hotKeys.size() || archived < archivedKeys.size()); position++) {
+            boolean takeHot = archived == archivedKeys.size()
+                    || (hot < hotKeys.size() && NEWEST_FIRST.compare(hotKeys.get(hot), archivedKeys.get(archived)) <= 0);
+            Long id = (Long) (takeHot ? hotKeys.get(hot++) : archivedKeys.get(archived++))[0];
+            if (position >= pageable.getOffset()) {
+                pageIds.add(id);
+                (takeHot ? hotIds : archivedIds).add(id);
+            }
+        }
+
+        Map<Long, OrderDto> byId = new HashMap<>();
+        if (!hotIds.isEmpty()) {
+            orderRepository.findAllByIdInWithItems(hotIds).forEach(order -> byId.put(order.getId(), new OrderDto(order)));
+        }
+        if (!archivedIds.isEmpty()) {
+            archivedOrderRepository.findAllByIdInWithItems(archivedIds)
+                    .forEach(order -> byId.put(order.getId(), new OrderDto(order)));
+        }
+        List<OrderDto> content = pageIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, orderRepository.countByUserId(userId) + archivedCount);
     }
 
     @Override
@@ -191,6 +272,7 @@ public class OrderServiceImpl implements OrderService {
 
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusEventDto(updatedOrder));
 
         log.info("Updated order status: {} to {}", order.getOrderNumber(), status);
         return new OrderDto(updatedOrder);
@@ -211,6 +293,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusEventDto(updatedOrder));
 
         log.info("Updated payment status: {} to {}", order.getOrderNumber(), paymentStatus);
         return new OrderDto(updatedOrder);
@@ -229,16 +312,18 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Cannot cancel shipped order. Please contact support.");
         }
 
-        // Restore inventory
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setInventoryCount(product.getInventoryCount() + item.getQuantity());
+        // Restore inventory, in the same product id order as checkout
+        List<OrderItem> byProductId = new ArrayList<>(order.getItems());
+        byProductId.sort(Comparator.comparing(item -> item.getProduct().getId()));
+        for (OrderItem item : byProductId) {
+            productService.restoreInventory(item.getProduct().getId(), item.getQuantity());
         }
 
         order.setStatus(Order.OrderStatus.CANCELLED);
         order.setCustomerNotes(order.getCustomerNotes() + "\n\nCancellation reason: " + reason);
 
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusEventDto(updatedOrder));
 
         log.info("Cancelled order: {} Reason: {}", order.getOrderNumber(), reason);
         return new OrderDto(updatedOrder);
@@ -319,7 +404,9 @@ public class OrderServiceImpl implements OrderService {
     // Helper methods
 
     private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis();
+        // Millisecond timestamps alone collide when checkouts run concurrently
+        return String.format("ORD-%d-%04d", System.currentTimeMillis(),
+                Math.floorMod(ORDER_NUMBER_SEQUENCE.getAndIncrement(), 10000));
     }
 
     private BigDecimal calculateSubtotal(Cart cart) {
@@ -0,0 +1,175 @@
+package com.sheshape.service.order.impl;
+
+import com.sheshape.dto.order.OrderStatusEventDto;
+import com.sheshape.exception.ServiceUnavailableException;
+import com.sheshape.service.order.OrderStatusStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes order status changes to Server-Sent Event streams.
+ *
+ * Streams are servlet async requests, so an idle connection holds no request thread,
+ * only its emitter and a map entry. Status events arrive through Spring's application
+ * event bus after the changing transaction commits.
+ */
+@Service
+@Slf4j
+public class OrderStatusStreamServiceImpl implements OrderStatusStreamService {
+
+    private static final String STATUS_EVENT = "order-status";
+
+    private final Map<Long, Set<Subscription>> subscriptionsByOrder = new ConcurrentHashMap<>();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+
+    // Single dispatcher keeps slow sockets off the request thread that changed the order
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-status-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Heartbeats write to every open stream, so they get their own thread rather than the shared scheduler
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-status-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${orders.stream.max-connections:20000}")
+    private int maxConnections;
+
+    @Value("${orders.stream.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${orders.stream.max-lifetime-ms:3600000}")
+    private long maxLifetimeMs;
+
+    @Value("${orders.stream.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @PostConstruct
+    public void startHeartbeats() {
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(OrderStatusEventDto currentStatus) {
+        if (activeConnections.incrementAndGet() > maxConnections) {
+            activeConnections.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open order status streams, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(maxLifetimeMs);
+        Subscription subscription = new Subscription(currentStatus.getOrderId(), emitter);
+        subscriptionsByOrder.compute(currentStatus.getOrderId(), (orderId, subscriptions) -> {
+            Set<Subscription> updated = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+
+        send(subscription, currentStatus);
+        return emitter;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusEventDto event) {
+        Set<Subscription> subscriptions = subscriptionsByOrder.get(event.getOrderId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> subscriptions.forEach(subscription -> send(subscription, event)));
+    }
+
+    /**
+     * Keep proxies from dropping quiet streams and close streams that saw no status change
+     * within the idle timeout.
+     */
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscriptionsByOrder.values().forEach(subscriptions -> subscriptions.forEach(subscription -> {
+            if (now - subscription.lastEventAt > idleTimeoutMs) {
+                subscription.emitter.complete();
+                remove(subscription);
+                return;
+            }
+            try {
+                subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(subscription);
+            } catch (RuntimeException e) {
+                // An uncaught exception would cancel the fixed-delay task and stop all heartbeats
+                log.warn("Heartbeat failed for order status stream of order {}", subscription.orderId, e);
+                remove(subscription);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscriptionsByOrder.values().forEach(subscriptions ->
+                subscriptions.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private void send(Subscription subscription, OrderStatusEventDto event) {
+        try {
+            subscription.emitter.send(SseEmitter.event()
+                    .name(STATUS_EVENT)
+                    .id(String.valueOf(event.getChangedAt()))
+                    .data(event));
+            subscription.lastEventAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping order status stream for order {}: {}", subscription.orderId, e.getMessage());
+            remove(subscription);
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        boolean[] removed = {false};
+        subscriptionsByOrder.computeIfPresent(subscription.orderId, (orderId, subscriptions) -> {
+            removed[0] = subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        if (removed[0]) {
+            activeConnections.decrementAndGet();
+        }
+    }
+
+    private static final class Subscription {
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private volatile long lastEventAt = System.currentTimeMillis();
+
+        private Subscription(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+    }
+}
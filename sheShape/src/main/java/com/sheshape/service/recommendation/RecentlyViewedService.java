@@ -0,0 +1,31 @@
+package com.sheshape.service.recommendation;
+
+import com.sheshape.dto.ProductDto;
+
+import java.util.List;
+
+/**
+ * Per-user "recently viewed" products, held in memory and written to the user row lazily
+ */
+public interface RecentlyViewedService {
+
+    /**
+     * Remember that a signed-in user viewed a product
+     * @param email Email of the authenticated user
+     * @param productId Product ID
+     */
+    void recordView(String email, Long productId);
+
+    /**
+     * Active products the user viewed most recently, newest first
+     * @param email Email of the authenticated user
+     * @param limit Maximum number of products
+     * @return Recently viewed products
+     */
+    List<ProductDto> getRecentlyViewed(String email, int limit);
+
+    /**
+     * Write every buffer with unsaved views to the database
+     */
+    void flush();
+}
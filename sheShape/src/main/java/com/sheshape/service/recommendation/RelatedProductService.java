@@ -0,0 +1,24 @@
+package com.sheshape.service.recommendation;
+
+import com.sheshape.dto.ProductDto;
+
+import java.util.List;
+
+/**
+ * "Frequently bought together": products that most often share an order with a given product.
+ */
+public interface RelatedProductService {
+
+    /**
+     * Active products most often bought with the given one, strongest first
+     * @param productId Product ID
+     * @param limit Maximum number of products
+     * @return Related products; empty when the product has never shared an order
+     */
+    List<ProductDto> getRelatedProducts(Long productId, int limit);
+
+    /**
+     * Recount co-occurrences from every order line and swap in the new neighbor lists
+     */
+    void rebuild();
+}
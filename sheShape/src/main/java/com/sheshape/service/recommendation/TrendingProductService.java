@@ -0,0 +1,31 @@
+package com.sheshape.service.recommendation;
+
+import com.sheshape.dto.ProductDto;
+
+import java.util.List;
+
+/**
+ * "Trending now": products with the most recent views and add-to-carts, with older activity
+ * decaying away over a configurable half-life.
+ */
+public interface TrendingProductService {
+
+    /**
+     * Count a product detail view
+     * @param productId Product ID
+     */
+    void recordView(Long productId);
+
+    /**
+     * Count an add-to-cart, which weighs more than a view
+     * @param productId Product ID
+     */
+    void recordAddToCart(Long productId);
+
+    /**
+     * Active products with the highest decayed activity, hottest first
+     * @param limit Maximum number of products
+     * @return Trending products
+     */
+    List<ProductDto> getTrendingProducts(int limit);
+}
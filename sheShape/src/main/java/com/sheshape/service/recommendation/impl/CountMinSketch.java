@@ -0,0 +1,101 @@
+package com.sheshape.service.recommendation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Count-min sketch over long keys with conservative update and uniform scaling for time decay.
+ * Memory is depth x width counters, independent of how many keys are counted. Estimates never
+ * undercount; they overcount by at most about total / width with high probability.
+ * Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final double[] counters;
+
+    CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1 || depth < 1) {
+            throw new IllegalArgumentException("Width must be a power of two and depth positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new double[width * depth];
+    }
+
+    int width() {
+        return width;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Add to a key's count and return its new estimate. Only the counters at the current minimum
+     * are raised, which keeps hash collisions from inflating other keys more than necessary.
+     */
+    double add(long key, double amount) {
+        double estimate = estimate(key) + amount;
+        for (int row = 0; row < depth; row++) {
+            int index = index(row, key);
+            if (counters[index] < estimate) {
+                counters[index] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    double estimate(long key) {
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(row, key)]);
+        }
+        return estimate;
+    }
+
+    void scale(double factor) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] *= factor;
+        }
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        for (double counter : counters) {
+            out.writeDouble(counter);
+        }
+    }
+
+    /**
+     * Read counters written by {@link #write}; the dimensions must match this sketch's
+     * @return false (leaving this sketch untouched) when they don't
+     */
+    boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != width || in.readInt() != depth) {
+            return false;
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = in.readDouble();
+        }
+        return true;
+    }
+
+    private int index(int row, long key) {
+        // Fixed per-row seeds, so a saved sketch maps keys to the same cells after a restart
+        long hash = mix(key + (row + 1) * 0x9E3779B97F4A7C15L);
+        return row * width + (int) (hash & mask);
+    }
+
+    private static long mix(long value) {
+        // SplitMix64 finalizer
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
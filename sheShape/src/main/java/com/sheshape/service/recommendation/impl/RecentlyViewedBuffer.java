@@ -0,0 +1,127 @@
+package com.sheshape.service.recommendation.impl;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Fixed-capacity ring of product ids, most recent first. Viewing a product that is already in the
+ * ring moves it to the front instead of adding a duplicate; once full, the oldest id is overwritten.
+ * Serialized as unsigned varints, so a typical id costs two or three bytes. Not thread-safe.
+ */
+final class RecentlyViewedBuffer {
+
+    // Worst case ten bytes per id must fit the 512-byte column
+    static final int MAX_CAPACITY = 50;
+
+    private final long[] ids;
+    // Slot of the most recent id
+    private int head = -1;
+    private int size;
+    private boolean dirty;
+
+    RecentlyViewedBuffer(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.ids = new long[capacity];
+    }
+
+    void add(long productId) {
+        int position = indexOf(productId);
+        if (position == 0) {
+            return;
+        }
+
+        if (position > 0) {
+            // Close the gap by shifting the newer ids back one place, then put this one in front
+            for (int i = position; i > 0; i--) {
+                ids[slot(i)] = ids[slot(i - 1)];
+            }
+            ids[head] = productId;
+        } else {
+            head = (head + 1) % ids.length;
+            ids[head] = productId;
+            size = Math.min(size + 1, ids.length);
+        }
+        dirty = true;
+    }
+
+    long[] toArray() {
+        long[] recent = new long[size];
+        for (int i = 0; i < size; i++) {
+            recent[i] = ids[slot(i)];
+        }
+        return recent;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Encode the ids, most recent first, and mark the buffer clean
+     */
+    byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 3);
+        for (int i = 0; i < size; i++) {
+            long value = ids[slot(i)];
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+        dirty = false;
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuild a buffer from {@link #encode()} output; null or empty data gives an empty buffer.
+     * Ids beyond the capacity (after it was lowered) are dropped, oldest first.
+     */
+    static RecentlyViewedBuffer decode(byte[] data, int capacity) {
+        RecentlyViewedBuffer buffer = new RecentlyViewedBuffer(capacity);
+        if (data == null) {
+            return buffer;
+        }
+
+        long[] decoded = new long[capacity];
+        int count = 0;
+        long value = 0;
+        int shift = 0;
+        for (int i = 0; i < data.length && count < capacity; i++) {
+            value |= (long) (data[i] & 0x7F) << shift;
+            if ((data[i] & 0x80) != 0) {
+                shift += 7;
+                continue;
+            }
+            decoded[count++] = value;
+            value = 0;
+            shift = 0;
+        }
+
+        // Oldest first, so the most recent ends up at the head
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.add(decoded[i]);
+        }
+        buffer.dirty = false;
+        return buffer;
+    }
+
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (ids[slot(i)] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Slot of the id at the given position, 0 being the most recent
+    private int slot(int position) {
+        return (head - position + ids.length) % ids.length;
+    }
+}
@@ -0,0 +1,186 @@
+package com.sheshape.service.recommendation.impl;
+
+import com.sheshape.dto.ProductDto;
+import com.sheshape.repository.UserRepository;
+import com.sheshape.service.ProductService;
+import com.sheshape.service.recommendation.RecentlyViewedService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a small ring buffer of product ids per user in an LRU map, so recording a view costs no
+ * database write. The buffer is read from users.recently_viewed the first time a user shows up (or
+ * after eviction), and buffers with new views are written back in one JDBC batch on a fixed delay,
+ * when evicted (at the next flush) and at shutdown.
+ */
+@Service
+@Slf4j
+public class RecentlyViewedServiceImpl implements RecentlyViewedService {
+
+    private static final String UPDATE_SQL = "UPDATE users SET recently_viewed = ? WHERE email = ?";
+
+    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+
+    // Guarded by itself; access-ordered so the least recently active user is evicted first
+    private final Map<String, RecentlyViewedBuffer> buffers;
+    // Guarded by buffers; encoded buffers that were evicted before their views were saved
+    private final Map<String, byte[]> evicted = new HashMap<>();
+    // Guarded by buffers; evicted buffers a flush is writing right now
+    private final Map<String, byte[]> saving = new HashMap<>();
+    // Guarded by buffers; bumped when a flush finishes writing, so a load that overlapped it reads again
+    private long flushGeneration;
+    // Serializes flushes; loads never wait on it
+    private final Object flushLock = new Object();
+
+    public RecentlyViewedServiceImpl(UserRepository userRepository,
+                                     ProductService productService,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${products.recently-viewed.capacity:20}") int capacity,
+                                     @Value("${products.recently-viewed.max-users:50000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        // Fail fast on a capacity the column can't hold
+        new RecentlyViewedBuffer(capacity);
+
+        this.buffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentlyViewedBuffer> eldest) {
+                if (size() <= maxUsers) {
+                    return false;
+                }
+                if (eldest.getValue().isDirty()) {
+                    evicted.put(eldest.getKey(), eldest.getValue().encode());
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void recordView(String email, Long productId) {
+        withBuffer(email, buffer -> {
+            buffer.add(productId);
+            return null;
+        });
+    }
+
+    @Override
+    public List<ProductDto> getRecentlyViewed(String email, int limit) {
+        long[] recent = withBuffer(email, RecentlyViewedBuffer::toArray);
+        List<Long> ids = Arrays.stream(recent).boxed().collect(Collectors.toList());
+
+        // One query for whatever the product cache doesn't hold
+        return productService.getProductsByIds(ids).stream()
+                .filter(product -> Boolean.TRUE.equals(product.getIsActive()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private <T> T withBuffer(String email, Function<RecentlyViewedBuffer, T> action) {
+        synchronized (buffers) {
+            RecentlyViewedBuffer buffer = buffers.get(email);
+            if (buffer != null) {
+                return action.apply(buffer);
+            }
+        }
+
+        while (true) {
+            long generation;
+            synchronized (buffers) {
+                generation = flushGeneration;
+            }
+
+            byte[] row = userRepository.findRecentlyViewedByEmail(email).orElse(null);
+            synchronized (buffers) {
+                RecentlyViewedBuffer buffer = buffers.get(email);
+                if (buffer == null) {
+                    // Views evicted but not yet saved are newer than the row that was just read
+                    byte[] unsaved = evicted.remove(email);
+                    if (unsaved == null) {
+                        unsaved = saving.get(email);
+                    }
+                    if (unsaved != null) {
+                        buffer = RecentlyViewedBuffer.decode(unsaved, capacity);
+                        buffer.markDirty();
+                    } else if (generation != flushGeneration) {
+                        // A flush finished while reading; the row may predate what it wrote
+                        continue;
+                    } else {
+                        buffer = RecentlyViewedBuffer.decode(row, capacity);
+                    }
+                    buffers.put(email, buffer);
+                }
+                return action.apply(buffer);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${products.recently-viewed.flush-interval-ms:30000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, byte[]> pending;
+            synchronized (buffers) {
+                pending = new HashMap<>(evicted);
+                saving.putAll(evicted);
+                evicted.clear();
+                buffers.forEach((email, buffer) -> {
+                    if (buffer.isDirty()) {
+                        pending.put(email, buffer.encode());
+                    }
+                });
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<Object[]> rows = pending.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                    .collect(Collectors.toList());
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+                synchronized (buffers) {
+                    saving.clear();
+                    flushGeneration++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to save recently viewed products for {} users, retrying at the next flush",
+                        pending.size(), e);
+                requeue(pending);
+            }
+        }
+    }
+
+    private void requeue(Map<String, byte[]> pending) {
+        synchronized (buffers) {
+            saving.clear();
+            flushGeneration++;
+            pending.forEach((email, data) -> {
+                RecentlyViewedBuffer buffer = buffers.get(email);
+                if (buffer != null) {
+                    buffer.markDirty();
+                } else {
+                    evicted.putIfAbsent(email, data);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
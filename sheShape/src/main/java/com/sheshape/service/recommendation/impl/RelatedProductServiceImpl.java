@@ -0,0 +1,178 @@
+package com.sheshape.service.recommendation.impl;
+
+import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.order.OrderPlacedEventDto;
+import com.sheshape.exception.ResourceNotFoundException;
+import com.sheshape.repository.order.ArchivedOrderRepository;
+import com.sheshape.repository.order.OrderItemRepository;
+import com.sheshape.service.ProductService;
+import com.sheshape.service.recommendation.RelatedProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps a sparse product x product co-occurrence matrix (how many orders contained both) and,
+ * per product, its top-K neighbors as a plain id array. Reads only touch the neighbor arrays;
+ * the matrix is built at startup by one keyset-paged pass over archived and live order items,
+ * then updated per committed checkout, re-ranking only the products in that order.
+ */
+@Service
+@Slf4j
+public class RelatedProductServiceImpl implements RelatedProductService {
+
+    private static final long[] NONE = new long[0];
+
+    // Rows per page of the rebuild; only one page and one basket are held in memory
+    private static final int PAIR_PAGE_SIZE = 5000;
+
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ProductService productService;
+
+    // Guarded by this; row -> (neighbor -> orders containing both)
+    private final Map<Long, Map<Long, Integer>> coOccurrences = new HashMap<>();
+    private final ConcurrentMap<Long, long[]> topNeighbors = new ConcurrentHashMap<>();
+
+    @Value("${products.related.top-k:20}")
+    private int topK;
+
+    @Value("${products.related.max-basket-size:50}")
+    private int maxBasketSize;
+
+    public RelatedProductServiceImpl(OrderItemRepository orderItemRepository,
+                                     ArchivedOrderRepository archivedOrderRepository,
+                                     ProductService productService) {
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.productService = productService;
+    }
+
+    @Override
+    public List<ProductDto> getRelatedProducts(Long productId, int limit) {
+        long[] neighbors = topNeighbors.getOrDefault(productId, NONE);
+
+        List<ProductDto> related = new ArrayList<>(Math.min(limit, neighbors.length));
+        for (int i = 0; i < neighbors.length && related.size() < limit; i++) {
+            try {
+                // Served from the product cache
+                ProductDto product = productService.getProductById(neighbors[i]);
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    related.add(product);
+                }
+            } catch (ResourceNotFoundException e) {
+                // Deleted since it was bought; dropped at the next rebuild
+            }
+        }
+        return related;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+        // Archived orders keep their original ids, so the two passes never see the same order
+        int orders = addBaskets(counts, archivedOrderRepository::findOrderProductPairsAfter)
+                + addBaskets(counts, orderItemRepository::findOrderProductPairsAfter);
+
+        coOccurrences.clear();
+        coOccurrences.putAll(counts);
+        // Replace entries in place so readers never see an empty map mid-rebuild
+        topNeighbors.keySet().retainAll(counts.keySet());
+        counts.forEach((productId, row) -> topNeighbors.put(productId, rank(row)));
+
+        log.info("Built related products: {} orders, {} products in {} ms",
+                orders, counts.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onOrderPlaced(OrderPlacedEventDto event) {
+        List<Long> basket = new ArrayList<>(event.getProductIds());
+        addBasket(coOccurrences, basket);
+
+        // Only the rows of products in this order changed
+        for (Long productId : new HashSet<>(basket)) {
+            Map<Long, Integer> row = coOccurrences.get(productId);
+            if (row != null) {
+                topNeighbors.put(productId, rank(row));
+            }
+        }
+    }
+
+    /**
+     * Counts every basket from keyset pages of (order id, product id) rows grouped by order.
+     * The last order of a full page may be cut off, so it is left for the next page.
+     */
+    private int addBaskets(Map<Long, Map<Long, Integer>> counts, BiFunction<Long, Integer, List<Object[]>> pages) {
+        // A page must hold any basket under the cap, or the skip below would drop it
+        int pageSize = Math.max(PAIR_PAGE_SIZE, maxBasketSize + 1);
+        int orders = 0;
+        long afterOrderId = 0;
+        while (true) {
+            List<Object[]> rows = pages.apply(afterOrderId, pageSize);
+            boolean lastPage = rows.size() < pageSize;
+            Long cutOffOrder = lastPage ? null : (Long) rows.get(rows.size() - 1)[0];
+
+            Long currentOrder = null;
+            List<Long> basket = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long orderId = (Long) row[0];
+                if (orderId.equals(cutOffOrder)) {
+                    break;
+                }
+                if (!orderId.equals(currentOrder)) {
+                    addBasket(counts, basket);
+                    basket.clear();
+                    currentOrder = orderId;
+                    orders++;
+                }
+                basket.add((Long) row[1]);
+            }
+            addBasket(counts, basket);
+
+            if (lastPage) {
+                return orders;
+            }
+            // An order filling a whole page is far over the basket cap; skip past it instead of re-reading it
+            afterOrderId = currentOrder != null ? currentOrder : cutOffOrder;
+        }
+    }
+
+    private void addBasket(Map<Long, Map<Long, Integer>> counts, List<Long> basket) {
+        long[] products = basket.stream().mapToLong(Long::longValue).distinct().toArray();
+        // Bulk or wholesale orders say little about what goes together and cost O(n^2) pairs
+        if (products.length < 2 || products.length > maxBasketSize) {
+            return;
+        }
+
+        for (long a : products) {
+            Map<Long, Integer> row = counts.computeIfAbsent(a, id -> new HashMap<>());
+            for (long b : products) {
+                if (a != b) {
+                    row.merge(b, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private long[] rank(Map<Long, Integer> row) {
+        return row.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topK)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+}
@@ -0,0 +1,276 @@
+package com.sheshape.service.recommendation.impl;
+
+import com.sheshape.dto.ProductDto;
+import com.sheshape.exception.ResourceNotFoundException;
+import com.sheshape.model.SketchSnapshot;
+import com.sheshape.repository.SketchSnapshotRepository;
+import com.sheshape.service.ProductService;
+import com.sheshape.service.recommendation.TrendingProductService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts product views and add-to-carts in a fixed-size count-min sketch and keeps the K products
+ * with the highest estimates in a min-heap. Counts decay exponentially with a configurable
+ * half-life, so the ranking reflects recent activity. Memory is bounded by the sketch dimensions
+ * and K, however large the catalog. The sketch and heap are saved to sketch_snapshots periodically
+ * and on shutdown, and restored (decayed for the downtime) at startup.
+ *
+ * Request threads only bump per-product atomic counters; a background thread folds them into the
+ * sketch and heap every fold interval, so the product page never waits on the heap's monitor.
+ */
+@Service
+@Slf4j
+public class TrendingProductServiceImpl implements TrendingProductService {
+
+    private static final String SNAPSHOT_NAME = "trending-products";
+    private static final int SNAPSHOT_FORMAT = 1;
+    // Candidates that decay below this have effectively stopped trending
+    private static final double MIN_SCORE = 0.01;
+
+    private final SketchSnapshotRepository snapshotRepository;
+    private final ProductService productService;
+
+    private final int topK;
+    private final double halfLifeMs;
+    private final double cartWeight;
+
+    // Guarded by this
+    private final CountMinSketch sketch;
+    private final Map<Long, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(c -> c.score));
+    private long lastDecayAt = System.currentTimeMillis();
+
+    private final ConcurrentMap<Long, PendingActivity> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService folder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trending-fold");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TrendingProductServiceImpl(SketchSnapshotRepository snapshotRepository,
+                                      ProductService productService,
+                                      @Value("${products.trending.top-k:100}") int topK,
+                                      @Value("${products.trending.sketch-width:4096}") int sketchWidth,
+                                      @Value("${products.trending.sketch-depth:4}") int sketchDepth,
+                                      @Value("${products.trending.half-life-minutes:60}") double halfLifeMinutes,
+                                      @Value("${products.trending.cart-weight:3}") double cartWeight,
+                                      @Value("${products.trending.fold-interval-ms:1000}") long foldIntervalMs) {
+        this.snapshotRepository = snapshotRepository;
+        this.productService = productService;
+        this.topK = topK;
+        this.halfLifeMs = halfLifeMinutes * 60_000;
+        this.cartWeight = cartWeight;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        folder.scheduleWithFixedDelay(this::foldInBackground, foldIntervalMs, foldIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        pending.computeIfAbsent(productId, id -> new PendingActivity()).views.incrementAndGet();
+    }
+
+    @Override
+    public void recordAddToCart(Long productId) {
+        pending.computeIfAbsent(productId, id -> new PendingActivity()).addsToCart.incrementAndGet();
+    }
+
+    private void foldInBackground() {
+        try {
+            fold();
+        } catch (RuntimeException e) {
+            // An uncaught exception would cancel the fixed-delay task
+            log.warn("Failed to fold trending product activity", e);
+        }
+    }
+
+    /**
+     * Move the counts recorded since the last fold into the sketch and heap
+     */
+    private synchronized void fold() {
+        pending.forEach((productId, activity) -> {
+            long views = activity.views.getAndSet(0);
+            long addsToCart = activity.addsToCart.getAndSet(0);
+            if (views == 0 && addsToCart == 0) {
+                // Idle for a whole interval; a view racing the removal is the only count that can be lost
+                pending.remove(productId, activity);
+                return;
+            }
+            record(productId, views + addsToCart * cartWeight);
+        });
+    }
+
+    // Callers hold this monitor
+    private void record(long productId, double weight) {
+        double score = sketch.add(productId, weight);
+
+        Candidate candidate = candidates.get(productId);
+        if (candidate != null) {
+            // Re-key: O(K) removal, fine for a heap of a hundred or so
+            heap.remove(candidate);
+            candidate.score = score;
+            heap.add(candidate);
+        } else if (heap.size() < topK) {
+            add(new Candidate(productId, score));
+        } else if (score > heap.peek().score) {
+            candidates.remove(heap.poll().productId);
+            add(new Candidate(productId, score));
+        }
+    }
+
+    private void add(Candidate candidate) {
+        candidates.put(candidate.productId, candidate);
+        heap.add(candidate);
+    }
+
+    @Override
+    public List<ProductDto> getTrendingProducts(int limit) {
+        List<Candidate> ranked;
+        synchronized (this) {
+            ranked = new ArrayList<>(heap);
+        }
+        ranked.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+
+        List<ProductDto> trending = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Iterator<Candidate> iterator = ranked.iterator(); iterator.hasNext() && trending.size() < limit; ) {
+            try {
+                // Served from the product cache
+                ProductDto product = productService.getProductById(iterator.next().productId);
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    trending.add(product);
+                }
+            } catch (ResourceNotFoundException e) {
+                // Deleted while trending; decays out of the heap
+            }
+        }
+        return trending;
+    }
+
+    @Scheduled(fixedDelayString = "${products.trending.decay-interval-ms:60000}")
+    public synchronized void decay() {
+        long now = System.currentTimeMillis();
+        decay(now - lastDecayAt);
+        lastDecayAt = now;
+    }
+
+    private void decay(long elapsedMs) {
+        if (elapsedMs <= 0) {
+            return;
+        }
+        double factor = Math.pow(0.5, elapsedMs / halfLifeMs);
+        sketch.scale(factor);
+
+        // Uniform scaling keeps the heap ordered, so scores can be updated in place
+        for (Candidate candidate : heap) {
+            candidate.score *= factor;
+        }
+        if (heap.removeIf(candidate -> candidate.score < MIN_SCORE)) {
+            candidates.keySet().retainAll(heap.stream().map(candidate -> candidate.productId).toList());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${products.trending.snapshot-interval-ms:300000}",
+            fixedDelayString = "${products.trending.snapshot-interval-ms:300000}")
+    public void saveSnapshot() {
+        byte[] data;
+        synchronized (this) {
+            data = serialize();
+        }
+        snapshotRepository.save(new SketchSnapshot(SNAPSHOT_NAME, data, LocalDateTime.now()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        try {
+            snapshotRepository.findById(SNAPSHOT_NAME).ifPresent(this::restore);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load trending products snapshot, starting empty", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        folder.shutdownNow();
+        try {
+            fold();
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Failed to save trending products snapshot on shutdown", e);
+        }
+    }
+
+    private byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(SNAPSHOT_FORMAT);
+            sketch.write(out);
+            out.writeInt(heap.size());
+            for (Candidate candidate : heap) {
+                out.writeLong(candidate.productId);
+                out.writeDouble(candidate.score);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private synchronized void restore(SketchSnapshot snapshot) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot.getData()))) {
+            if (in.readInt() != SNAPSHOT_FORMAT || !sketch.readFrom(in)) {
+                log.info("Ignoring trending products snapshot with a different format or sketch size");
+                return;
+            }
+            candidates.clear();
+            heap.clear();
+            for (int i = in.readInt(); i > 0; i--) {
+                Candidate candidate = new Candidate(in.readLong(), in.readDouble());
+                if (heap.size() < topK) {
+                    add(candidate);
+                } else if (candidate.score > heap.peek().score) {
+                    candidates.remove(heap.poll().productId);
+                    add(candidate);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Activity recorded before the snapshot has aged while the application was down
+        long savedAt = snapshot.getSavedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        lastDecayAt = System.currentTimeMillis();
+        decay(lastDecayAt - savedAt);
+        log.info("Restored trending products snapshot with {} candidates", heap.size());
+    }
+
+    private static final class PendingActivity {
+        private final AtomicLong views = new AtomicLong();
+        private final AtomicLong addsToCart = new AtomicLong();
+    }
+
+    private static final class Candidate {
+        private final long productId;
+        private double score;
+
+        private Candidate(long productId, double score) {
+            this.productId = productId;
+            this.score = score;
+        }
+    }
+}
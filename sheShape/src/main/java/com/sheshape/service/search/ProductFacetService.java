@@ -0,0 +1,40 @@
+package com.sheshape.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory bitmap index over categories, price buckets, stock state and the active flag.
+ */
+public interface ProductFacetService {
+
+    /**
+     * Evaluate a filter and return the matching ids for one page plus the facet counts.
+     * Values within a group are OR-ed, groups are AND-ed; null or empty means "any".
+     */
+    FacetResult filter(Set<String> categories, Set<String> priceBuckets, Boolean inStock, Boolean active,
+                       Pageable pageable);
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    void rebuild();
+
+    /**
+     * Matching ids for the requested page and the facet counts, before the page is hydrated
+     */
+    @Data
+    @AllArgsConstructor
+    class FacetResult {
+        private List<Long> productIds;
+        private long totalElements;
+        private Map<String, Long> categoryCounts;
+        private Map<String, Long> priceCounts;
+        private Map<String, Long> stockCounts;
+    }
+}
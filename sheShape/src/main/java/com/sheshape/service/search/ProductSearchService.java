@@ -0,0 +1,31 @@
+package com.sheshape.service.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * In-memory full-text index over active products (name, description, categories).
+ */
+public interface ProductSearchService {
+
+    /**
+     * Sort property that orders results by BM25 relevance (the default)
+     */
+    String SORT_RELEVANCE = "relevance";
+
+    /**
+     * Find matching product ids, ranked by relevance unless the pageable sorts by name or price.
+     * Never touches the database.
+     */
+    Page<Long> search(String query, Pageable pageable);
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    void rebuild();
+
+    /**
+     * Number of indexed products
+     */
+    int size();
+}
@@ -0,0 +1,24 @@
+package com.sheshape.service.search;
+
+import com.sheshape.dto.ProductSuggestionDto;
+
+import java.util.List;
+
+/**
+ * Typeahead over product names and category labels, ranked by popularity.
+ */
+public interface ProductSuggestService {
+
+    // Most suggestions a lookup can return; the trie keeps this many per prefix
+    int MAX_RESULTS = 10;
+
+    /**
+     * Suggestions whose words start with the typed prefix, most popular first
+     */
+    List<ProductSuggestionDto> suggest(String query, int limit);
+
+    /**
+     * Rebuild the suggestion trie from the catalog and sales figures, then swap it in
+     */
+    void rebuild();
+}
@@ -0,0 +1,379 @@
+package com.sheshape.service.search.impl;
+
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
+import com.sheshape.dto.ProductInventoryChangeEventDto;
+import com.sheshape.model.Product;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.service.search.ProductFacetService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products are numbered with dense ordinals so every facet value is a BitSet over the catalog
+ * (a few hundred bytes per value for thousands of products). Filters are evaluated with bitmap
+ * AND/OR; only the ids of the requested page leave the index. Products that change while a rebuild
+ * is reading the catalog are re-read after the swap; stock events are deltas, so replaying them
+ * could count a sale twice.
+ */
+@Service
+@Slf4j
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    public static final String IN_STOCK = "inStock";
+    public static final String OUT_OF_STOCK = "outOfStock";
+
+    private final ProductRepository productRepository;
+    private final ProductFacetService self;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ids changed during each running rebuild, guarded by the write lock
+    private final Set<Set<Long>> rebuildBuffers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final BigDecimal[] priceBounds;
+    private final String[] priceLabels;
+
+    // Ordinal -> product; null marks a freed ordinal waiting for reuse
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet active = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, String> categoryLabels = new HashMap<>();
+    private final BitSet[] byPriceBucket;
+
+    public ProductFacetServiceImpl(ProductRepository productRepository,
+                                   @Lazy ProductFacetService self,
+                                   @Value("${products.facets.price-bounds:25,50,100,200}") List<BigDecimal> priceBounds) {
+        this.productRepository = productRepository;
+        this.self = self;
+        this.priceBounds = priceBounds.stream().sorted().toArray(BigDecimal[]::new);
+        this.priceLabels = new String[this.priceBounds.length + 1];
+        this.byPriceBucket = new BitSet[this.priceBounds.length + 1];
+
+        BigDecimal lower = BigDecimal.ZERO;
+        for (int i = 0; i < this.priceBounds.length; i++) {
+            priceLabels[i] = lower.toPlainString() + "-" + this.priceBounds[i].toPlainString();
+            lower = this.priceBounds[i];
+        }
+        priceLabels[this.priceBounds.length] = lower.toPlainString() + "+";
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public FacetResult filter(Set<String> categories, Set<String> priceBuckets, Boolean inStockFilter,
+                              Boolean activeFilter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet categoryMask = categoryMask(categories);
+            BitSet priceMask = priceMask(priceBuckets);
+            BitSet stockMask = flagMask(inStock, inStockFilter);
+            BitSet activeMask = flagMask(active, activeFilter);
+
+            // Each group is counted against the other groups' filters (multi-select faceting)
+            BitSet forCategories = intersect(live, priceMask, stockMask, activeMask);
+            BitSet forPrices = intersect(live, categoryMask, stockMask, activeMask);
+            BitSet forStock = intersect(live, categoryMask, priceMask, activeMask);
+            BitSet matches = intersect(forCategories, categoryMask);
+
+            Map<String, Long> categoryCounts = countCategories(forCategories);
+            Map<String, Long> priceCounts = new LinkedHashMap<>();
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                priceCounts.put(priceLabels[i], (long) intersect(forPrices, byPriceBucket[i]).cardinality());
+            }
+            long inStockCount = intersect(forStock, inStock).cardinality();
+            Map<String, Long> stockCounts = new LinkedHashMap<>();
+            stockCounts.put(IN_STOCK, inStockCount);
+            stockCounts.put(OUT_OF_STOCK, forStock.cardinality() - inStockCount);
+
+            List<Entry> matched = new ArrayList<>(matches.cardinality());
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                matched.add(entries.get(ordinal));
+            }
+            matched.sort(comparator(pageable.getSort()));
+
+            int from = (int) Math.min(pageable.getOffset(), matched.size());
+            int to = Math.min(from + pageable.getPageSize(), matched.size());
+            List<Long> pageIds = matched.subList(from, to).stream().map(entry -> entry.id).toList();
+
+            return new FacetResult(pageIds, matched.size(), categoryCounts, priceCounts, stockCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet categoryMask(Set<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return null;
+        }
+        BitSet mask = new BitSet();
+        for (String category : categories) {
+            BitSet bits = byCategory.get(TextAnalyzer.normalize(category));
+            if (bits != null) {
+                mask.or(bits);
+            }
+        }
+        return mask;
+    }
+
+    private BitSet priceMask(Set<String> buckets) {
+        if (buckets == null || buckets.isEmpty()) {
+            return null;
+        }
+        BitSet mask = new BitSet();
+        for (int i = 0; i < priceLabels.length; i++) {
+            if (buckets.contains(priceLabels[i])) {
+                mask.or(byPriceBucket[i]);
+            }
+        }
+        return mask;
+    }
+
+    private BitSet flagMask(BitSet flag, Boolean wanted) {
+        if (wanted == null) {
+            return null;
+        }
+        if (wanted) {
+            return flag;
+        }
+        BitSet inverse = (BitSet) live.clone();
+        inverse.andNot(flag);
+        return inverse;
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Long> countCategories(BitSet candidates) {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        byCategory.forEach((key, bits) -> {
+            long count = intersect(candidates, bits).cardinality();
+            if (count > 0) {
+                counts.add(Map.entry(categoryLabels.get(key), count));
+            }
+        });
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach(count -> result.put(count.getKey(), count.getValue()));
+        return result;
+    }
+
+    private static Comparator<Entry> comparator(Sort sort) {
+        for (Sort.Order order : sort) {
+            Comparator<Entry> comparator = switch (order.getProperty()) {
+                case "price" -> Comparator.comparing(entry -> entry.price);
+                case "createdAt", "id" -> Comparator.comparing(entry -> entry.id);
+                case "name" -> Comparator.comparing(entry -> entry.sortName);
+                default -> null;
+            };
+            if (comparator != null) {
+                comparator = order.isAscending() ? comparator : comparator.reversed();
+                return comparator.thenComparing(entry -> entry.id);
+            }
+        }
+        return Comparator.comparing((Entry entry) -> entry.sortName).thenComparing(entry -> entry.id);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Set<Long> changed = new HashSet<>();
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.add(changed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Product> products;
+        try {
+            products = productRepository.findAllWithCategories();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuildBuffers.remove(changed);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.remove(changed);
+            entries.clear();
+            ordinals.clear();
+            freeOrdinals.clear();
+            live.clear();
+            active.clear();
+            inStock.clear();
+            byCategory.clear();
+            categoryLabels.clear();
+            for (BitSet bucket : byPriceBucket) {
+                bucket.clear();
+            }
+            for (Product product : products) {
+                add(new ProductChangeEventDto(product));
+            }
+            if (!changed.isEmpty()) {
+                changed.forEach(this::remove);
+                productRepository.findAllWithCategoriesByIdIn(changed)
+                        .forEach(product -> add(new ProductChangeEventDto(product)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Built product facet index: {} products, {} categories in {} ms",
+                products.size(), byCategory.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        // Bulk imports publish one event instead of one per row; rebuild once
+        self.rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.forEach(buffer -> buffer.add(event.getProductId()));
+            remove(event.getProductId());
+            if (!event.isDeleted()) {
+                add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(ProductInventoryChangeEventDto event) {
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.forEach(buffer -> buffer.add(event.getProductId()));
+            Integer ordinal = ordinals.get(event.getProductId());
+            if (ordinal == null) {
+                return;
+            }
+            Entry entry = entries.get(ordinal);
+            entry.inventoryCount += event.getDelta();
+            inStock.set(ordinal, entry.inventoryCount > 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(ProductChangeEventDto product) {
+        int ordinal = freeOrdinals.isEmpty() ? entries.size() : freeOrdinals.pop();
+        BigDecimal price = product.getDiscountPrice() != null ? product.getDiscountPrice() : product.getPrice();
+        Entry entry = new Entry(product.getProductId(), TextAnalyzer.normalize(product.getName()),
+                price != null ? price : BigDecimal.ZERO,
+                product.getInventoryCount() != null ? product.getInventoryCount() : 0,
+                new HashSet<>(), priceBucket(price));
+
+        if (ordinal == entries.size()) {
+            entries.add(entry);
+        } else {
+            entries.set(ordinal, entry);
+        }
+        ordinals.put(entry.id, ordinal);
+
+        live.set(ordinal);
+        active.set(ordinal, product.isActive());
+        inStock.set(ordinal, entry.inventoryCount > 0);
+        byPriceBucket[entry.priceBucket].set(ordinal);
+        for (String category : product.getCategories()) {
+            String key = TextAnalyzer.normalize(category);
+            entry.categoryKeys.add(key);
+            byCategory.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+            categoryLabels.putIfAbsent(key, category);
+        }
+    }
+
+    // Callers hold the write lock
+    private void remove(Long productId) {
+        Integer ordinal = ordinals.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        Entry entry = entries.get(ordinal);
+        live.clear(ordinal);
+        active.clear(ordinal);
+        inStock.clear(ordinal);
+        byPriceBucket[entry.priceBucket].clear(ordinal);
+        for (String key : entry.categoryKeys) {
+            BitSet bits = byCategory.get(key);
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                byCategory.remove(key);
+                categoryLabels.remove(key);
+            }
+        }
+        entries.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    private int priceBucket(BigDecimal price) {
+        if (price == null) {
+            return 0;
+        }
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final String sortName;
+        private final BigDecimal price;
+        private int inventoryCount;
+        private final Set<String> categoryKeys;
+        private final int priceBucket;
+
+        private Entry(Long id, String sortName, BigDecimal price, int inventoryCount,
+                      Set<String> categoryKeys, int priceBucket) {
+            this.id = id;
+            this.sortName = sortName;
+            this.price = price;
+            this.inventoryCount = inventoryCount;
+            this.categoryKeys = categoryKeys;
+            this.priceBucket = priceBucket;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.sheshape.service.search.impl;
+
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
+import com.sheshape.model.Product;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.service.search.ProductSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index scored with BM25F-style field weighting: a term in the name counts three times,
+ * in a category twice, in the description once. Writers swap single documents under a write lock;
+ * searches only take the read lock. Changes that commit while a rebuild is reading the catalog are
+ * buffered and replayed onto the new index after the swap, so the rebuild can't undo them.
+ */
+@Service
+@Slf4j
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchService self;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // One buffer per running rebuild, guarded by the write lock
+    private final Set<List<ProductChangeEventDto>> rebuildBuffers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // term -> product id -> weighted term frequency
+    private Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private Map<Long, IndexedProduct> documents = new HashMap<>();
+    private long totalLength;
+
+    public ProductSearchServiceImpl(ProductRepository productRepository, @Lazy ProductSearchService self) {
+        this.productRepository = productRepository;
+        this.self = self;
+    }
+
+    @Override
+    public Page<Long> search(String query, Pageable pageable) {
+        List<String> queryTerms = TextAnalyzer.analyze(query).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = score(queryTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(comparator(pageable.getSort()));
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<Long> ids = hits.subList(from, to).stream().map(hit -> hit.document.id).toList();
+        return new PageImpl<>(ids, pageable, hits.size());
+    }
+
+    private List<Hit> score(List<String> queryTerms) {
+        int documentCount = documents.size();
+        if (documentCount == 0) {
+            return new ArrayList<>();
+        }
+        double averageLength = (double) totalLength / documentCount;
+
+        Map<Long, Hit> hits = new HashMap<>();
+        for (String term : queryTerms) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+
+            int documentFrequency = termPostings.size();
+            double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+            for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+                IndexedProduct document = documents.get(posting.getKey());
+                int frequency = posting.getValue();
+                double norm = K1 * (1 - B + B * document.length / averageLength);
+                double termScore = idf * frequency * (K1 + 1) / (frequency + norm);
+
+                hits.computeIfAbsent(document.id, id -> new Hit(document)).score += termScore;
+            }
+        }
+        return new ArrayList<>(hits.values());
+    }
+
+    private static Comparator<Hit> comparator(Sort sort) {
+        Comparator<Hit> byRelevance = Comparator.<Hit>comparingDouble(hit -> hit.score).reversed();
+        for (Sort.Order order : sort) {
+            Comparator<Hit> comparator = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(hit -> hit.document.sortName);
+                case "price" -> Comparator.comparing(hit -> hit.document.price);
+                default -> null;
+            };
+            if (comparator != null) {
+                comparator = order.isAscending() ? comparator : comparator.reversed();
+                return comparator.thenComparing(byRelevance);
+            }
+        }
+        return byRelevance.thenComparing(hit -> hit.document.id);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<String, Map<Long, Integer>> newPostings = new HashMap<>();
+        Map<Long, IndexedProduct> newDocuments = new HashMap<>();
+        long newTotalLength = 0;
+
+        List<ProductChangeEventDto> missed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.add(missed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            for (Product product : productRepository.findAllActiveWithCategories()) {
+                IndexedProduct document = analyze(new ProductChangeEventDto(product));
+                addPostings(newPostings, document);
+                newDocuments.put(document.id, document);
+                newTotalLength += document.length;
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+                missed.forEach(event -> apply(event.getProductId(), event.isListed() ? analyze(event) : null));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuildBuffers.remove(missed);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Built product search index: {} products, {} terms in {} ms",
+                newDocuments.size(), newPostings.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        // Bulk imports publish one event instead of one per row; rebuild once
+        self.rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        IndexedProduct document = event.isListed() ? analyze(event) : null;
+
+        lock.writeLock().lock();
+        try {
+            rebuildBuffers.forEach(buffer -> buffer.add(event));
+            apply(event.getProductId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace one product's document; callers hold the write lock
+     */
+    private void apply(Long productId, IndexedProduct document) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous != null) {
+            removePostings(previous);
+            totalLength -= previous.length;
+        }
+        if (document != null) {
+            addPostings(postings, document);
+            documents.put(document.id, document);
+            totalLength += document.length;
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static IndexedProduct analyze(ProductChangeEventDto product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, product.getName(), NAME_WEIGHT);
+        for (String category : product.getCategories()) {
+            addField(frequencies, category, CATEGORY_WEIGHT);
+        }
+        addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        BigDecimal price = product.getDiscountPrice() != null ? product.getDiscountPrice() : product.getPrice();
+        return new IndexedProduct(product.getProductId(), TextAnalyzer.normalize(product.getName()),
+                price != null ? price : BigDecimal.ZERO, length, frequencies);
+    }
+
+    private static void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static void addPostings(Map<String, Map<Long, Integer>> postings, IndexedProduct document) {
+        document.frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id, frequency));
+    }
+
+    private void removePostings(IndexedProduct document) {
+        for (String term : document.frequencies.keySet()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(document.id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static final class IndexedProduct {
+        private final Long id;
+        private final String sortName;
+        private final BigDecimal price;
+        private final int length;
+        private final Map<String, Integer> frequencies;
+
+        private IndexedProduct(Long id, String sortName, BigDecimal price, int length, Map<String, Integer> frequencies) {
+            this.id = id;
+            this.sortName = sortName;
+            this.price = price;
+            this.length = length;
+            this.frequencies = frequencies;
+        }
+    }
+
+    private static final class Hit {
+        private final IndexedProduct document;
+        private double score;
+
+        private Hit(IndexedProduct document) {
+            this.document = document;
+        }
+    }
+}
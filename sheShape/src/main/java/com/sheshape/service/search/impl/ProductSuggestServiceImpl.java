@@ -0,0 +1,175 @@
+package com.sheshape.service.search.impl;
+
+import com.sheshape.dto.ProductBulkChangeEventDto;
+import com.sheshape.dto.ProductChangeEventDto;
+import com.sheshape.dto.ProductSalesDto;
+import com.sheshape.dto.ProductSuggestionDto;
+import com.sheshape.model.Product;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.repository.order.ArchivedOrderRepository;
+import com.sheshape.repository.order.OrderItemRepository;
+import com.sheshape.service.search.ProductSuggestService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Every product name and category label is indexed under each of its word starts, so "leg" finds
+ * "Seamless Yoga Leggings". Catalog changes schedule a debounced rebuild on a background thread;
+ * readers keep using the previous snapshot until the new one is swapped in.
+ */
+@Service
+@Slf4j
+public class ProductSuggestServiceImpl implements ProductSuggestService {
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot = new Snapshot(SuggestionTrie.empty(), new ProductSuggestionDto[0]);
+
+    @Value("${products.suggest.rebuild-delay-ms:2000}")
+    private long rebuildDelayMs;
+
+    public ProductSuggestServiceImpl(ProductRepository productRepository, OrderItemRepository orderItemRepository,
+                                     ArchivedOrderRepository archivedOrderRepository) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+    }
+
+    @Override
+    public List<ProductSuggestionDto> suggest(String query, int limit) {
+        String prefix = String.join(" ", TextAnalyzer.tokenize(query));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        int[] ranks = current.trie.lookup(prefix);
+        int count = Math.min(Math.min(limit, MAX_RESULTS), ranks.length);
+
+        List<ProductSuggestionDto> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(current.suggestions[ranks[i]]);
+        }
+        return suggestions;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${products.suggest.refresh-cron:0 0 * * * *}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+
+        // Archived orders still count, or long-selling products would drop in rank as their orders age out
+        Map<Long, Long> unitsSold = new HashMap<>();
+        for (List<ProductSalesDto> sales : List.of(archivedOrderRepository.sumQuantityByProduct(),
+                orderItemRepository.sumQuantityByProduct())) {
+            sales.forEach(sale -> unitsSold.merge(sale.getProductId(), sale.getUnitsSold(), Long::sum));
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        Map<String, Candidate> categories = new HashMap<>();
+        for (Product product : productRepository.findAllActiveWithCategories()) {
+            long popularity = unitsSold.getOrDefault(product.getId(), 0L);
+            candidates.add(new Candidate(new ProductSuggestionDto(product.getName(),
+                    ProductSuggestionDto.Type.PRODUCT, product.getId()), popularity));
+
+            // A category is as popular as everything sold in it, plus one per product so new ones still rank
+            for (String category : product.getCategories()) {
+                categories.computeIfAbsent(TextAnalyzer.normalize(category), key -> new Candidate(
+                        new ProductSuggestionDto(category, ProductSuggestionDto.Type.CATEGORY, null), 0))
+                        .popularity += popularity + 1;
+            }
+        }
+        candidates.addAll(categories.values());
+
+        candidates.sort(Comparator.comparingLong((Candidate candidate) -> candidate.popularity).reversed()
+                .thenComparingInt(candidate -> candidate.suggestion.getText().length())
+                .thenComparing(candidate -> candidate.suggestion.getText()));
+
+        SuggestionTrie.Builder builder = SuggestionTrie.builder(MAX_RESULTS);
+        ProductSuggestionDto[] suggestions = new ProductSuggestionDto[candidates.size()];
+        for (int rank = 0; rank < candidates.size(); rank++) {
+            suggestions[rank] = candidates.get(rank).suggestion;
+            List<String> words = TextAnalyzer.tokenize(suggestions[rank].getText());
+            for (int start = 0; start < words.size(); start++) {
+                builder.add(String.join(" ", words.subList(start, words.size())), rank);
+            }
+        }
+
+        snapshot = new Snapshot(builder.build(), suggestions);
+        log.info("Built product suggestions: {} entries in {} ms", suggestions.length, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDto event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBulkChange(ProductBulkChangeEventDto event) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        // Coalesce bursts of catalog writes into one rebuild
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuildInBackground, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuildInBackground() {
+        rebuildScheduled.set(false);
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild product suggestions, keeping the previous ones", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private static final class Snapshot {
+        private final SuggestionTrie trie;
+        private final ProductSuggestionDto[] suggestions;
+
+        private Snapshot(SuggestionTrie trie, ProductSuggestionDto[] suggestions) {
+            this.trie = trie;
+            this.suggestions = suggestions;
+        }
+    }
+
+    private static final class Candidate {
+        private final ProductSuggestionDto suggestion;
+        private long popularity;
+
+        private Candidate(ProductSuggestionDto suggestion, long popularity) {
+            this.suggestion = suggestion;
+            this.popularity = popularity;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.sheshape.service.search.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable radix trie from normalized keys to suggestion ranks.
+ *
+ * Suggestions are numbered by rank (0 = most popular), and every node stores the best
+ * {@code maxResults} ranks found below it, so a lookup is a walk down the prefix followed by
+ * returning a precomputed array. Single-child chains are collapsed into one edge label, which
+ * keeps the node count proportional to the number of distinct keys rather than their characters.
+ */
+final class SuggestionTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final Node root;
+
+    private SuggestionTrie(Node root) {
+        this.root = root;
+    }
+
+    static SuggestionTrie empty() {
+        return new SuggestionTrie(new Node(new char[0], new String[0], new Node[0], NONE));
+    }
+
+    /**
+     * Ranks of the best suggestions whose keys start with the prefix, best first
+     */
+    int[] lookup(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int edge = Arrays.binarySearch(node.firstChars, prefix.charAt(position));
+            if (edge < 0) {
+                return NONE;
+            }
+            String label = node.labels[edge];
+            int length = Math.min(label.length(), prefix.length() - position);
+            if (!prefix.regionMatches(position, label, 0, length)) {
+                return NONE;
+            }
+            position += length;
+            node = node.children[edge];
+        }
+        return node.top;
+    }
+
+    static Builder builder(int maxResults) {
+        return new Builder(maxResults);
+    }
+
+    static final class Builder {
+
+        private final int maxResults;
+        private final BuildNode root = new BuildNode();
+
+        private Builder(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        Builder add(String key, int rank) {
+            if (key.isEmpty()) {
+                return this;
+            }
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuildNode());
+            }
+            node.ranks.add(rank);
+            return this;
+        }
+
+        SuggestionTrie build() {
+            return new SuggestionTrie(compress(root));
+        }
+
+        private Node compress(BuildNode node) {
+            int size = node.children.size();
+            char[] firstChars = new char[size];
+            String[] labels = new String[size];
+            Node[] children = new Node[size];
+
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> entry : node.children.entrySet()) {
+                StringBuilder label = new StringBuilder().append(entry.getKey());
+                BuildNode child = entry.getValue();
+                while (child.ranks.isEmpty() && child.children.size() == 1) {
+                    Map.Entry<Character, BuildNode> only = child.children.firstEntry();
+                    label.append(only.getKey());
+                    child = only.getValue();
+                }
+                firstChars[i] = entry.getKey();
+                labels[i] = label.toString();
+                children[i] = compress(child);
+                i++;
+            }
+
+            return new Node(firstChars, labels, children, topRanks(node.ranks, children));
+        }
+
+        // Lowest ranks (= most popular) among this node's own keys and its subtrees, without duplicates
+        private int[] topRanks(List<Integer> own, Node[] children) {
+            int[] merged = own.stream().mapToInt(Integer::intValue).toArray();
+            for (Node child : children) {
+                int[] combined = Arrays.copyOf(merged, merged.length + child.top.length);
+                System.arraycopy(child.top, 0, combined, merged.length, child.top.length);
+                merged = combined;
+            }
+            return Arrays.stream(merged).distinct().sorted().limit(maxResults).toArray();
+        }
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> ranks = new ArrayList<>(1);
+    }
+
+    private static final class Node {
+        private final char[] firstChars;
+        private final String[] labels;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] firstChars, String[] labels, Node[] children, int[] top) {
+            this.firstChars = firstChars;
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+    }
+}
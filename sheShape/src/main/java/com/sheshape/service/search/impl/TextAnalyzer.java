@@ -0,0 +1,118 @@
+package com.sheshape.service.search.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns catalog text into index terms: accent folding, lower-casing, splitting on anything that
+ * is not a letter or digit, stop word removal and light English suffix stemming.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "of", "on", "or", "the", "to", "with", "your", "our");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Accent-folded, lower-cased form of the text, used for display-independent matching
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalized words of the text, without stop word removal or stemming
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Index terms of the text: tokens minus stop words, stemmed
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Light suffix stripper: plural forms first, then -ing/-ed/-ly, only when the remaining stem
+     * still has a vowel ("leggings" -> "legging" -> "leg", but "string" stays "string").
+     */
+    static String stem(String token) {
+        String word = token;
+        if (word.length() > 3 && !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+
+        if (word.length() > 4 && word.endsWith("ies")) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("sses") || word.endsWith("shes") || word.endsWith("ches") || word.endsWith("xes")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.length() > 3 && word.endsWith("s")
+                && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        if (word.length() > 5 && word.endsWith("ing")) {
+            word = stripVerbSuffix(word, 3);
+        } else if (word.length() > 4 && word.endsWith("ed")) {
+            word = stripVerbSuffix(word, 2);
+        } else if (word.length() > 5 && word.endsWith("ly")) {
+            word = stripVerbSuffix(word, 2);
+        }
+        return word;
+    }
+
+    private static String stripVerbSuffix(String word, int suffixLength) {
+        String stem = word.substring(0, word.length() - suffixLength);
+        if (!hasVowel(stem)) {
+            return word;
+        }
+        // "running" -> "runn" -> "run"
+        int last = stem.length() - 1;
+        if (stem.length() > 2 && stem.charAt(last) == stem.charAt(last - 1)
+                && !isVowel(stem.charAt(last)) && "lsz".indexOf(stem.charAt(last)) < 0) {
+            stem = stem.substring(0, last);
+        }
+        return stem;
+    }
+
+    private static boolean hasVowel(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isVowel(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,250 @@
+package com.sheshape.perf;
+
+import com.sheshape.model.Product;
+import com.sheshape.model.User;
+import com.sheshape.model.order.Cart;
+import com.sheshape.model.order.CartItem;
+import com.sheshape.repository.ProductRepository;
+import com.sheshape.repository.UserRepository;
+import com.sheshape.repository.order.CartRepository;
+import com.sheshape.security.JwtUtil;
+import com.sheshape.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent checkout load test against an embedded H2 database.
+ *
+ * Seeds products with limited stock and users whose carts together demand more than
+ * the available inventory, fires all checkouts at once, reports throughput and latency
+ * percentiles, and verifies that no product was oversold.
+ *
+ * Run with: mvn test -Pperf [-Dperf.products=20 -Dperf.users=300 -Dperf.inventory=25 -Dperf.concurrency=64]
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.secret=perf-test-secret-key-that-is-long-enough-for-hs256-signing",
+        "jwt.expiration=3600000",
+        "aws.accessKey=perf", "aws.secretKey=perf", "aws.region=us-east-1",
+        "aws.s3.bucket=perf", "aws.s3.endpoint=http://localhost",
+        "spring.mail.host=localhost",
+        "orders.archive.enabled=false",
+        "logging.level.com.sheshape=WARN"
+})
+class CheckoutLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutLoadTest.class);
+
+    private static final int PRODUCTS = Integer.getInteger("perf.products", 20);
+    private static final int USERS = Integer.getInteger("perf.users", 300);
+    private static final int INVENTORY = Integer.getInteger("perf.inventory", 25);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 64);
+
+    private static final String CHECKOUT_BODY = """
+            {"paymentMethod":"CASH_ON_DELIVERY",
+             "shippingAddress":{"street":"1 KN Ave","city":"Kigali","state":"Kigali","zipCode":"00000","country":"RW"}}
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        List<Product> products = seedProducts();
+        List<String> tokens = seedUsersWithCarts(products);
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(CONCURRENCY))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long[] latencies = new long[tokens.size()];
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentMap<Integer, AtomicInteger> unexpected = new ConcurrentHashMap<>();
+        CountDownLatch startGate = new CountDownLatch(1);
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        ExecutorService drivers = newDriverExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            int index = i;
+            futures.add(drivers.submit(() -> {
+                startGate.await();
+                inFlight.acquire();
+                try {
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = client.send(checkoutRequest(tokens.get(index)),
+                            HttpResponse.BodyHandlers.ofString());
+                    latencies[index] = System.nanoTime() - start;
+
+                    switch (response.statusCode()) {
+                        case 201 -> created.incrementAndGet();
+                        case 400 -> rejected.incrementAndGet(); // insufficient inventory
+                        default -> unexpected.computeIfAbsent(response.statusCode(), code -> new AtomicInteger())
+                                .incrementAndGet();
+                    }
+                } finally {
+                    inFlight.release();
+                }
+                return null;
+            }));
+        }
+
+        long runStart = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsedNanos = System.nanoTime() - runStart;
+        drivers.shutdown();
+
+        report(latencies, elapsedNanos, created.get(), rejected.get(), unexpected);
+
+        assertNoOversell(products);
+        assertThat(unexpected).as("unexpected response codes").isEmpty();
+        assertThat(created.get()).isPositive();
+    }
+
+    private List<Product> seedProducts() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Perf product " + i);
+            product.setPrice(new BigDecimal("19.99"));
+            product.setInventoryCount(INVENTORY);
+            product.setCategories(new HashSet<>(List.of("perf")));
+            products.add(product);
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private List<String> seedUsersWithCarts(List<Product> products) {
+        Random random = new Random(42);
+        List<String> tokens = new ArrayList<>();
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("perf-user-" + i);
+            user.setEmail("perf-user-" + i + "@sheshape.test");
+            user.setPassword("not-used");
+            user.setRole(User.Role.CLIENT);
+            user = userRepository.save(user);
+
+            Cart cart = Cart.builder().user(user).build();
+            int lines = 1 + random.nextInt(3);
+            Set<Integer> picked = new HashSet<>();
+            while (picked.size() < lines) {
+                picked.add(random.nextInt(products.size()));
+            }
+            for (int productIndex : picked) {
+                cart.addItem(CartItem.builder()
+                        .product(products.get(productIndex))
+                        .quantity(1 + random.nextInt(3))
+                        .build());
+            }
+            cartRepository.save(cart);
+
+            tokens.add(jwtUtil.generateToken(userDetailsService.loadUserByUsername(user.getEmail())));
+        }
+        return tokens;
+    }
+
+    private HttpRequest checkoutRequest(String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/checkout"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(CHECKOUT_BODY))
+                .build();
+    }
+
+    private void assertNoOversell(List<Product> products) {
+        for (Product product : products) {
+            Integer sold = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?",
+                    Integer.class, product.getId());
+            Integer remaining = jdbcTemplate.queryForObject(
+                    "SELECT inventory_count FROM products WHERE id = ?", Integer.class, product.getId());
+
+            assertThat(sold).as("units sold of product %d", product.getId()).isLessThanOrEqualTo(INVENTORY);
+            assertThat(remaining).as("remaining stock of product %d", product.getId()).isEqualTo(INVENTORY - sold);
+        }
+    }
+
+    private void report(long[] latencies, long elapsedNanos, int created, int rejected,
+                        Map<Integer, AtomicInteger> unexpected) {
+        long[] sorted = Arrays.stream(latencies).filter(l -> l > 0).sorted().toArray();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        log.warn("Checkout load test: {} requests in {} s ({} req/s), concurrency {}",
+                sorted.length, String.format("%.2f", seconds), String.format("%.1f", sorted.length / seconds),
+                CONCURRENCY);
+        log.warn("  created={} rejected={} unexpected={}", created, rejected, unexpected);
+        log.warn("  latency p50={} ms p95={} ms p99={} ms max={} ms",
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * One virtual thread per request when the JDK provides them (21+), a bounded pool otherwise.
+     */
+    private static ExecutorService newDriverExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(CONCURRENCY * 2);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sheshape.service;
+
+import com.sheshape.dto.ProductDto;
+import com.sheshape.dto.ProductImageDto;
+import com.sheshape.model.Product;
+import com.sheshape.model.ProductImage;
+import com.sheshape.repository.ProductImageRepository;
+import com.sheshape.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Locks in that main-image switching, reordering and image reconciliation on product updates
+ * run a fixed number of statements regardless of how many images a product has.
+ */
+@SpringBootTest(properties = "querycount.database=images")
+@ActiveProfiles("querycount")
+class ProductImageQueryCountTest {
+
+    private static final int IMAGES = 12;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long productId;
+
+    @BeforeEach
+    void seedProduct() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Product product = new Product();
+        product.setName("Image test product");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setInventoryCount(5);
+        product.setCategories(new HashSet<>(Set.of("images")));
+        for (int position = 0; position < IMAGES; position++) {
+            ProductImage image = new ProductImage();
+            image.setProduct(product);
+            image.setImageUrl("https://cdn.sheshape.test/images/" + position + ".jpg");
+            image.setFileKey("images/" + position);
+            image.setPosition(position);
+            image.setMain(position == 0);
+            product.getImages().add(image);
+        }
+        productId = productRepository.save(product).getId();
+    }
+
+    @Test
+    void setMainImageIsOneUpdate() {
+        List<ProductImage> images = images();
+        ProductImage target = images.get(IMAGES - 1);
+
+        statistics.clear();
+        ProductImage main = productImageService.setMainImage(target.getId());
+
+        assertThat(main.isMain()).isTrue();
+        // image lookup + main switch + product version bump
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(images()).filteredOn(ProductImage::isMain)
+                .extracting(ProductImage::getId)
+                .containsExactly(target.getId());
+    }
+
+    @Test
+    void reorderIsBatched() {
+        List<ProductImage> reordered = new ArrayList<>();
+        List<ProductImage> images = images();
+        for (int i = 0; i < images.size(); i++) {
+            ProductImage image = new ProductImage();
+            image.setId(images.get(i).getId());
+            image.setPosition(IMAGES - 1 - i);
+            image.setMain(i == 3);
+            reordered.add(image);
+        }
+
+        statistics.clear();
+        productImageService.updateImagePositions(reordered);
+
+        // image lookup + batched position updates + main switch + product version bump
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        List<ProductImage> stored = images();
+        List<Long> expectedOrder = new ArrayList<>(reordered.stream().map(ProductImage::getId).toList());
+        Collections.reverse(expectedOrder);
+        assertThat(stored).extracting(ProductImage::getId).containsExactlyElementsOf(expectedOrder);
+        assertThat(stored).filteredOn(ProductImage::isMain)
+                .extracting(ProductImage::getId)
+                .containsExactly(reordered.get(3).getId());
+    }
+
+    @Test
+    void unsettingMainHandsItToFirstImageByPosition() {
+        List<ProductImage> images = images();
+        ProductImage unset = new ProductImage();
+        unset.setId(images.get(0).getId());
+        unset.setPosition(IMAGES);
+        unset.setMain(false);
+
+        productImageService.updateImagePositions(List.of(unset));
+
+        assertThat(images()).filteredOn(ProductImage::isMain)
+                .extracting(ProductImage::getId)
+                .containsExactly(images.get(1).getId());
+    }
+
+    @Test
+    void updateProductLooksUpImagesOnce() {
+        List<ProductImageDto> requested = new ArrayList<>();
+        for (ProductImage image : images()) {
+            ProductImageDto dto = new ProductImageDto();
+            dto.setId(image.getId());
+            dto.setImageUrl(image.getImageUrl());
+            dto.setFileKey(image.getFileKey());
+            dto.setPosition(image.getPosition());
+            dto.setMain(image.isMain());
+            requested.add(dto);
+        }
+        ProductDto update = new ProductDto();
+        update.setImages(requested);
+
+        statistics.clear();
+        ProductDto updated = productService.updateProduct(productId, update);
+
+        assertThat(updated.getImages()).hasSize(IMAGES);
+        // product + categories + image lookup + images collection + product update + category rewrite,
+        // with no per-image lookups
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(IMAGES + 1);
+    }
+
+    private List<ProductImage> images() {
+        return productImageRepository.findByProductIdOrderByPositionAsc(productId);
+    }
+}
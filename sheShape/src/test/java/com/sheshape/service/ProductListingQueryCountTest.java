@@ -0,0 +1,121 @@
+package com.sheshape.service;
+
+import com.sheshape.dto.ProductCardDto;
+import com.sheshape.dto.ProductDto;
+import com.sheshape.model.Product;
+import com.sheshape.model.ProductImage;
+import com.sheshape.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Locks in that product listing pages load images and categories for the whole page in bulk
+ * rather than with one query per product.
+ */
+@SpringBootTest(properties = "querycount.database=listing")
+@ActiveProfiles("querycount")
+class ProductListingQueryCountTest {
+
+    private static final int PAGE_SIZE = 24;
+    private static final String CATEGORY = "listing";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedCatalog() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (productRepository.count() > 0) {
+            return;
+        }
+
+        // More products than one page, so the count query runs as it would in production
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE + 6; i++) {
+            Product product = new Product();
+            product.setName(String.format("Listing product %02d", i));
+            product.setPrice(new BigDecimal("29.99"));
+            product.setInventoryCount(i % 3);
+            product.setCategories(new HashSet<>(Set.of(CATEGORY, "category-" + (i % 4))));
+            for (int position = 0; position < 3; position++) {
+                ProductImage image = new ProductImage();
+                image.setProduct(product);
+                image.setImageUrl("https://cdn.sheshape.test/" + i + "/" + position + ".jpg");
+                image.setFileKey(i + "/" + position);
+                image.setPosition(position);
+                image.setMain(position == 1);
+                product.getImages().add(image);
+            }
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @Test
+    void activeProductsPageLoadsImagesAndCategoriesInBulk() {
+        Page<ProductDto> page = countStatements(() -> productService.getAllActiveProducts(firstPage()));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(product -> {
+            assertThat(product.getImages()).hasSize(3);
+            assertThat(product.getCategories()).hasSize(2);
+        });
+        // page + count + images + categories
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void categoryPageLoadsImagesAndCategoriesInBulk() {
+        Page<ProductDto> page = countStatements(() -> productService.getProductsByCategory(CATEGORY, firstPage()));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(product -> assertThat(product.getImages()).hasSize(3));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void productCardsOnlyLoadImages() {
+        Page<ProductCardDto> page = countStatements(() -> productService.getActiveProductCards(firstPage()));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(card -> assertThat(card.getMainImageUrl()).endsWith("/1.jpg"));
+        // page + count + images
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    private <T> T countStatements(Supplier<T> listing) {
+        statistics.clear();
+        return listing.get();
+    }
+
+    private static Pageable firstPage() {
+        return PageRequest.of(0, PAGE_SIZE, Sort.by("name"));
+    }
+}